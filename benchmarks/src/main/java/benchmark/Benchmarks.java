@@ -0,0 +1,38 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the benchmarks of the core kernels, with the GC profiler on, so every
+ * result also reports the allocation rate and bytes allocated per operation.
+ * </br>
+ * Usage: <code>java -jar benchmarks/target/benchmarks.jar [JMH options]</code>,
+ * e.g. <code>TermBenchmark -p nVariables=64</code> to run one benchmark at one
+ * variable count. Standard JMH options override the defaults below.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class Benchmarks {
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		// defaults, unless set on the command line
+		Options options = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.forks(commandLine.getForkCount().orElse(1))
+				.warmupIterations(commandLine.getWarmupIterations().orElse(3))
+				.warmupTime(commandLine.getWarmupTime().orElse(TimeValue.seconds(1)))
+				.measurementIterations(commandLine.getMeasurementIterations().orElse(5))
+				.measurementTime(commandLine.getMeasurementTime().orElse(TimeValue.seconds(1)))
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,39 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import core.TermList;
+import heuristic.Connectivity;
+
+/**
+ * {@link Connectivity#adjacencyMatrix(TermList)}, the weighted co-occurrence
+ * counts of every pair of variables.
+ *
+ * @author lvl2pillow
+ *
+ */
+@State(Scope.Benchmark)
+public class ConnectivityBenchmark {
+	@Param({"16", "64", "256"})
+	int nVariables;
+	@Param({"1000", "100000"})
+	int nRows;
+
+	private TermList dataSet;
+
+	@Setup
+	public void setup() {
+		dataSet = DataSets.minterms(new SplittableRandom(DataSets.SEED), nRows, nVariables);
+	}
+
+	@Benchmark
+	public int[][] adjacencyMatrix() {
+		return Connectivity.adjacencyMatrix(dataSet);
+	}
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import core.CoverMatrix;
+import core.TermList;
+import core.TermSet;
+import core.UCP;
+
+/**
+ * {@link UCP#getCoverMatrix()}, building the cover matrix of the onset and
+ * the prime implicants.
+ *
+ * @author lvl2pillow
+ *
+ */
+@State(Scope.Benchmark)
+public class CoverMatrixBenchmark {
+	@Param({"16", "64", "256"})
+	int nVariables;
+	@Param({"1000", "100000"})
+	int nRows;
+	@Param({"64", "1024"})
+	int nPrimeImplicants;
+
+	private TermList onset;
+	private TermSet primeImplicants;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(DataSets.SEED);
+		onset = DataSets.minterms(random, nRows, nVariables);
+		primeImplicants = DataSets.terms(random, nPrimeImplicants, nVariables, 
+				Math.min(nVariables, 8));
+	}
+
+	@Benchmark
+	public CoverMatrix getCoverMatrix() {
+		// the matrix is built once per UCP
+		return new CoverMatrixTest(onset, primeImplicants).getCoverMatrix();
+	}
+
+	/**
+	 * Exposes the cover matrix of {@link UCP}.
+	 */
+	static final class CoverMatrixTest extends UCP {
+		CoverMatrixTest(TermList onset, TermSet primeImplicants) {
+			super(onset, primeImplicants);
+		}
+
+		@Override
+		protected void essentialPrimeImplicantsHelper(TermSet essentialPrimeImplicants, 
+				CoverMatrix coverMatrix) {}
+
+		@Override
+		public CoverMatrix getCoverMatrix() {
+			return super.getCoverMatrix();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import core.Schema;
+import core.Term;
+import core.TermList;
+import core.TermSet;
+
+/**
+ * Seeded random data sets for the benchmarks. Every minterm has every
+ * variable, each in normal form with probability 1/2, and shares the
+ * canonical literals of one {@link Schema}.
+ *
+ * @author lvl2pillow
+ *
+ */
+final class DataSets {
+	static final long SEED = 42;
+
+	private DataSets() {}
+
+	/**
+	 *
+	 * @param random
+	 * @param nRows
+	 * @param nVariables
+	 * @return random data set.
+	 */
+	static TermList minterms(SplittableRandom random, int nRows, int nVariables) {
+		Schema schema = Schema.of(nVariables);
+		TermList dataSet = new TermList();
+		dataSet.ensureCapacity(nRows);
+		for (int row = 0; row < nRows; ++row) {
+			Term minterm = new Term();
+			minterm.ensureCapacity(nVariables);
+			for (int i = 0; i < nVariables; ++i)
+				minterm.add(schema.getLiteral(i, random.nextBoolean()));
+			dataSet.add(minterm);
+		}
+		return dataSet;
+	}
+
+	/**
+	 *
+	 * @param random
+	 * @param nVariables
+	 * @param length number of literals.
+	 * @return random term of distinct variables.
+	 */
+	static Term term(SplittableRandom random, int nVariables, int length) {
+		Schema schema = Schema.of(nVariables);
+		Term term = new Term();
+		while (term.size() < Math.min(length, nVariables))
+			term.add(schema.getLiteral(random.nextInt(nVariables), random.nextBoolean()));
+		return term;
+	}
+
+	/**
+	 *
+	 * @param random
+	 * @param nTerms
+	 * @param nVariables
+	 * @param maxLength
+	 * @return set of random terms, of 1 to maxLength literals.
+	 */
+	static TermSet terms(SplittableRandom random, int nTerms, int nVariables, int maxLength) {
+		TermSet terms = new TermSet();
+		while (terms.size() < nTerms)
+			terms.add(term(random, nVariables, 1+random.nextInt(maxLength)));
+		return terms;
+	}
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import core.IE;
+import core.LiteralSet;
+import core.Term;
+import core.TermList;
+import core.TermSet;
+
+/**
+ * {@link IE#isPrimeImplicant(Term)}, the offset intersection test of implicant
+ * expansion, over a set of implicants of varying length.
+ *
+ * @author lvl2pillow
+ *
+ */
+@State(Scope.Benchmark)
+public class ImplicantExpansionBenchmark {
+	@Param({"16", "64", "256"})
+	int nVariables;
+	@Param({"1000", "100000"})
+	int nRows;
+
+	private Term[] implicants;
+	private PrimeImplicantTest ie;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(DataSets.SEED);
+		TermList offset = DataSets.minterms(random, nRows, nVariables);
+		implicants = DataSets.terms(random, 64, nVariables, 
+				Math.max(1, nVariables/4)).toArray(new Term[0]);
+		ie = new PrimeImplicantTest(offset);
+		// build the offset index outside of the measurement
+		ie.isPrimeImplicant(implicants[0]);
+	}
+
+	@Benchmark
+	public int isPrimeImplicant() {
+		int nPrime = 0;
+		for (Term implicant : implicants)
+			if (ie.isPrimeImplicant(implicant))
+				++nPrime;
+		return nPrime;
+	}
+
+	/**
+	 * Exposes the prime implicant test of {@link IE}.
+	 */
+	static final class PrimeImplicantTest extends IE {
+		PrimeImplicantTest(TermList offset) {
+			super(offset, new TermSet());
+		}
+
+		@Override
+		protected LiteralSet getLiteralCandidates(Term currentImplicant) {
+			return new LiteralSet();
+		}
+
+		@Override
+		public boolean isPrimeImplicant(Term implicant) {
+			return super.isPrimeImplicant(implicant);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import core.Term;
+import core.TermList;
+import heuristic.LiteralFrequency;
+import heuristic.LiteralFrequencyCounter;
+
+/**
+ * {@link LiteralFrequency} of a term, computed from scratch and by moving a
+ * {@link LiteralFrequencyCounter} between two terms.
+ *
+ * @author lvl2pillow
+ *
+ */
+@State(Scope.Benchmark)
+public class LiteralFrequencyBenchmark {
+	@Param({"16", "64", "256"})
+	int nVariables;
+	@Param({"1000", "100000"})
+	int nRows;
+
+	private TermList dataSet;
+	private Term[] terms;
+	private LiteralFrequencyCounter counter;
+	private int next;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(DataSets.SEED);
+		dataSet = DataSets.minterms(random, nRows, nVariables);
+		terms = new Term[] {DataSets.term(random, nVariables, 2), 
+				DataSets.term(random, nVariables, 2)};
+		counter = new LiteralFrequencyCounter(dataSet);
+	}
+
+	@Benchmark
+	public LiteralFrequency literalFrequency() {
+		return new LiteralFrequency(terms[0], dataSet);
+	}
+
+	@Benchmark
+	public int literalFrequencyCounter() {
+		next ^= 1;
+		counter.setTerm(terms[next]);
+		return counter.getMaxFrequency();
+	}
+}
@@ -0,0 +1,292 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import care.Social;
+import core.Contradictions;
+import core.PackedTerm;
+import core.Term;
+import core.TermList;
+import core.TermSet;
+import data.Data;
+import data.Generator;
+import heuristic.HeuristicContext;
+
+/**
+ * End-to-end scaling of the BOOM and CARE pipelines (CDS, IE, UCP) over a grid
+ * of data set sizes, on data sets with a planted solution (see
+ * {@link Generator}).
+ * </br>
+ * Every cell of the grid runs in its own JVM, so heap measurements are not
+ * shared between cells and a cell that exceeds the timeout can be killed.
+ * Once a cell times out, larger cells of the same algorithm are skipped.
+ * </br>
+ * Usage: <code>java -cp benchmarks/target/benchmarks.jar benchmark.ScalingBenchmark
+ * [options]</code>, where the options (with defaults) are:
+ * <pre>
+ * --algorithms boom,care   --variables 8,12,16,24   --rows 500,2000,8000
+ * --terms 3   --length 3   --noise 0   --duplication 0
+ * --iterations 10   --interactivity 0.5   --seed 1   --timeout 120 (seconds)
+ * --frontier unbounded (permutations on the heap per queue of CDS and IE)
+ * </pre>
+ * Reported per cell: wall time of every phase, peak heap, implicants found by
+ * CDS per second, prime implicants found by IE per second, size of the cover,
+ * and how many planted terms are in the cover.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class ScalingBenchmark {
+	private static final String HEADER = String.format(Locale.ROOT,
+			"%-6s %6s %7s %7s %7s %9s %9s %9s %9s %9s %10s %12s %8s %10s %6s %9s",
+			"alg", "vars", "rows", "onset", "offset", "cds ms", "ie ms", "ucp ms",
+			"total ms", "heap MB", "implicants", "implicants/s", "primes", "primes/s",
+			"cover", "recovered");
+
+	private String[] algorithms = {"boom", "care"};
+	private int[] variables = {8, 12, 16, 24};
+	private int[] rows = {500, 2000, 8000};
+	private int nTerms = 3;
+	private int termLength = 3;
+	private double noise = 0.0;
+	private double duplication = 0.0;
+	private int nIterations = 10;
+	private double interactivity = 0.5;
+	private long seed = 1;
+	private long timeout = 120;
+	private int frontierBound = Integer.MAX_VALUE;
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && args[0].equals("--cell")) {
+			// one cell, in a child JVM
+			ScalingBenchmark benchmark = new ScalingBenchmark();
+			benchmark.parse(args, 4);
+			System.out.println(benchmark.runCell(args[1], Integer.parseInt(args[2]),
+					Integer.parseInt(args[3])));
+			return;
+		}
+		ScalingBenchmark benchmark = new ScalingBenchmark();
+		benchmark.parse(args, 0);
+		benchmark.runGrid();
+	}
+
+	/**
+	 * Parses the options from an index on.
+	 *
+	 * @param args
+	 * @param from
+	 */
+	private void parse(String[] args, int from) {
+		for (int i = from; i < args.length; i += 2) {
+			if (i+1 >= args.length)
+				throw new IllegalArgumentException("missing value of "+args[i]);
+			String value = args[i+1];
+			switch (args[i]) {
+			case "--algorithms": algorithms = value.split(","); break;
+			case "--variables": variables = ints(value); break;
+			case "--rows": rows = ints(value); break;
+			case "--terms": nTerms = Integer.parseInt(value); break;
+			case "--length": termLength = Integer.parseInt(value); break;
+			case "--noise": noise = Double.parseDouble(value); break;
+			case "--duplication": duplication = Double.parseDouble(value); break;
+			case "--iterations": nIterations = Integer.parseInt(value); break;
+			case "--interactivity": interactivity = Double.parseDouble(value); break;
+			case "--seed": seed = Long.parseLong(value); break;
+			case "--timeout": timeout = Long.parseLong(value); break;
+			case "--frontier": frontierBound = Integer.parseInt(value); break;
+			default: throw new IllegalArgumentException("unknown option "+args[i]);
+			}
+		}
+	}
+
+	private static int[] ints(String value) {
+		String[] values = value.split(",");
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; ++i)
+			ints[i] = Integer.parseInt(values[i].trim());
+		return ints;
+	}
+
+	/**
+	 * @return the options of a child JVM.
+	 */
+	private List<String> options() {
+		List<String> options = new ArrayList<String>();
+		String[][] pairs = {
+				{"--terms", Integer.toString(nTerms)},
+				{"--length", Integer.toString(termLength)},
+				{"--noise", Double.toString(noise)},
+				{"--duplication", Double.toString(duplication)},
+				{"--iterations", Integer.toString(nIterations)},
+				{"--interactivity", Double.toString(interactivity)},
+				{"--seed", Long.toString(seed)},
+				{"--frontier", Integer.toString(frontierBound)}};
+		for (String[] pair : pairs) {
+			options.add(pair[0]);
+			options.add(pair[1]);
+		}
+		return options;
+	}
+
+	/**
+	 * Runs every cell of the grid in a child JVM, and prints a table.
+	 */
+	private void runGrid() throws IOException, InterruptedException {
+		System.out.println(HEADER);
+		String java = System.getProperty("java.home")+File.separator+"bin"+File.separator+"java";
+		for (String algorithm : algorithms) {
+			boolean isTimedOut = false;
+			for (int nVariables : variables) {
+				for (int nRows : rows) {
+					if (isTimedOut) {
+						System.out.println(String.format(Locale.ROOT, "%-6s %6d %7d  skipped",
+								algorithm, nVariables, nRows));
+						continue;
+					}
+					List<String> command = new ArrayList<String>();
+					command.add(java);
+					command.add("-cp");
+					command.add(System.getProperty("java.class.path"));
+					command.add(ScalingBenchmark.class.getName());
+					command.add("--cell");
+					command.add(algorithm);
+					command.add(Integer.toString(nVariables));
+					command.add(Integer.toString(nRows));
+					command.addAll(options());
+					Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+					List<String> output = new ArrayList<String>();
+					Thread reader = new Thread(() -> {
+						try (BufferedReader in = new BufferedReader(
+								new InputStreamReader(process.getInputStream()))) {
+							String line;
+							while ((line = in.readLine()) != null)
+								output.add(line);
+						} catch (IOException e) {
+							// process killed
+						}
+					});
+					reader.start();
+					if (!process.waitFor(timeout, TimeUnit.SECONDS)) {
+						process.destroyForcibly().waitFor();
+						isTimedOut = true;
+						System.out.println(String.format(Locale.ROOT, "%-6s %6d %7d  timeout (%d s)",
+								algorithm, nVariables, nRows, timeout));
+						continue;
+					}
+					reader.join();
+					for (String line : output)
+						System.out.println(line);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generates a data set and runs one pipeline on it.
+	 *
+	 * @param algorithm boom or care.
+	 * @param nVariables
+	 * @param nRows
+	 * @return row of the table.
+	 */
+	private String runCell(String algorithm, int nVariables, int nRows) {
+		Generator generator = new Generator(nVariables, nRows);
+		generator.setPlantedTerms(nTerms, termLength);
+		generator.setNoise(noise);
+		generator.setDuplication(duplication);
+		generator.setSeed(seed);
+		Data data = generator.generate();
+		TermList onset = data.getOnset().toTermList();
+		TermList offset = data.getOffset().toTermList();
+		// noisy duplicates are contradictions, resolved by majority
+		Contradictions.find(onset, offset).resolve(onset, offset, Contradictions.Policy.MAJORITY);
+		if (onset.isEmpty() || offset.isEmpty())
+			return String.format(Locale.ROOT, "%-6s %6d %7d  empty %s", algorithm,
+					nVariables, nRows, onset.isEmpty() ? "onset" : "offset");
+		System.gc();
+		resetPeakHeap();
+		HeuristicContext context = new HeuristicContext(onset, offset, data.getSchema());
+		long start = System.nanoTime();
+		core.CDS cdsPhase;
+		if (algorithm.equals("boom")) {
+			cdsPhase = new boom.CDS(context, nIterations, seed);
+		} else if (algorithm.equals("care")) {
+			double[] socialHeuristic = new Social(context).getHeuristicVector();
+			cdsPhase = new care.CDS(context, socialHeuristic, interactivity);
+		} else {
+			throw new IllegalArgumentException("unknown algorithm "+algorithm);
+		}
+		cdsPhase.setFrontierBound(frontierBound);
+		TermSet implicants = cdsPhase.run();
+		long cds = System.nanoTime();
+		core.IE iePhase = algorithm.equals("boom") ?
+				new boom.IE(context, implicants) :
+				new care.IE(context, implicants);
+		iePhase.setFrontierBound(frontierBound);
+		TermSet primeImplicants = iePhase.run();
+		long ie = System.nanoTime();
+		TermSet cover = algorithm.equals("boom") ?
+				new boom.UCP(context, primeImplicants).run() :
+				new care.UCP(context, primeImplicants).run();
+		long ucp = System.nanoTime();
+		return String.format(Locale.ROOT,
+				"%-6s %6d %7d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %10d %12.0f %8d %10.0f %6d %5d/%-3d",
+				algorithm, nVariables, nRows, onset.size(), offset.size(),
+				millis(start, cds), millis(cds, ie), millis(ie, ucp), millis(start, ucp),
+				peakHeap()/(1024.0*1024.0),
+				implicants.size(), implicants.size()/seconds(start, cds),
+				primeImplicants.size(), primeImplicants.size()/seconds(cds, ie),
+				cover.size(), recovered(generator.getPlantedTerms(), cover), nTerms);
+	}
+
+	/**
+	 *
+	 * @param plantedTerms
+	 * @param cover
+	 * @return number of planted terms in the cover, regardless of literal order.
+	 */
+	private static int recovered(TermSet plantedTerms, TermSet cover) {
+		Set<PackedTerm> terms = new HashSet<PackedTerm>();
+		for (Term term : cover)
+			terms.add(term.getPackedTerm());
+		int nRecovered = 0;
+		for (Term term : plantedTerms)
+			if (terms.contains(term.getPackedTerm()))
+				++nRecovered;
+		return nRecovered;
+	}
+
+	private static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				pool.resetPeakUsage();
+	}
+
+	/**
+	 *
+	 * @return sum of the peak usage of every heap pool since the last reset.
+	 */
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				peak += pool.getPeakUsage().getUsed();
+		return peak;
+	}
+
+	private static double millis(long from, long to) { return (to-from)/1e6; }
+
+	private static double seconds(long from, long to) { return Math.max(to-from, 1)/1e9; }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import core.Term;
+import core.TermList;
+
+/**
+ * {@link Term#covers(Term)} of one term over every minterm of a data set.
+ *
+ * @author lvl2pillow
+ *
+ */
+@State(Scope.Benchmark)
+public class TermBenchmark {
+	@Param({"16", "64", "256"})
+	int nVariables;
+	@Param({"1000", "100000"})
+	int nRows;
+
+	private TermList dataSet;
+	private Term term;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(DataSets.SEED);
+		dataSet = DataSets.minterms(random, nRows, nVariables);
+		term = DataSets.term(random, nVariables, 3);
+	}
+
+	@Benchmark
+	public int covers() {
+		int nCovered = 0;
+		for (Term minterm : dataSet)
+			if (term.covers(minterm))
+				++nCovered;
+		return nCovered;
+	}
+}
@@ -0,0 +1,51 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import core.Term;
+import core.TermList;
+
+/**
+ * {@link TermList#removeTermsCoveredBy(Term)}. Every invocation works on a
+ * fresh copy of the data set, so {@link #copy()} is the baseline to subtract.
+ *
+ * @author lvl2pillow
+ *
+ */
+@State(Scope.Benchmark)
+public class TermListBenchmark {
+	@Param({"16", "64", "256"})
+	int nVariables;
+	@Param({"1000", "100000"})
+	int nRows;
+	@Param({"1", "3"})
+	int termLength;			// shorter terms cover more minterms
+
+	private TermList dataSet;
+	private Term term;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(DataSets.SEED);
+		dataSet = DataSets.minterms(random, nRows, nVariables);
+		term = DataSets.term(random, nVariables, termLength);
+	}
+
+	@Benchmark
+	public TermList copy() {
+		return new TermList(dataSet);
+	}
+
+	@Benchmark
+	public TermList removeTermsCoveredBy() {
+		TermList termList = new TermList(dataSet);
+		termList.removeTermsCoveredBy(term);
+		return termList;
+	}
+}
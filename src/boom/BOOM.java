@@ -1,7 +1,14 @@
 package boom;
 
-import core.MintermList;
+import java.util.SplittableRandom;
+
+import core.Budget;
+import core.Schema;
+import core.Solution;
+import core.TermList;
 import core.TermSet;
+import data.Data;
+import heuristic.HeuristicContext;
 
 /**
  * Run the BOOM algorithm.
@@ -10,24 +17,117 @@ import core.TermSet;
  *
  */
 public class BOOM {
-	private final MintermList onset;
-	private final MintermList offset;
+	private final TermList onset;
+	private final TermList offset;
+	private final Schema schema;
 	private final int nIterations;
+	private long seed = System.nanoTime();	// master seed of the random choices
+	private int parallelism = 1;			// threads of the CDS iterations
+	private boolean isExact;				// minimum cover in UCP
 	
-	public BOOM(MintermList onset, MintermList offset, int nIterations) {
+	/**
+	 * The schema is derived from the minterms, and the onset and offset are
+	 * interned with it.
+	 * 
+	 * @param onset
+	 * @param offset
+	 * @param nIterations
+	 */
+	public BOOM(TermList onset, TermList offset, int nIterations) {
+		this(onset, offset, Schema.interned(onset, offset), nIterations);
+	}
+	
+	/**
+	 * 
+	 * @param onset
+	 * @param offset
+	 * @param schema schema of the data set, with the canonical literals.
+	 * @param nIterations
+	 */
+	public BOOM(TermList onset, TermList offset, Schema schema, int nIterations) {
 		this.onset = onset;
 		this.offset = offset;
+		this.schema = schema;
 		this.nIterations = nIterations;
 	}
 	
+	public BOOM(Data data, int nIterations) {
+		this(data.getOnset().toTermList(), data.getOffset().toTermList(), 
+				data.getSchema(), nIterations);
+	}
+	
+	/**
+	 * Sets the master seed of every random choice of a run, i.e. of the CDS
+	 * iterations and of IE. The same seed returns the same solution, no 
+	 * matter the parallelism. By default the seed is drawn from 
+	 * {@link System#nanoTime()}.
+	 * 
+	 * @param seed
+	 */
+	public void setSeed(long seed) { this.seed = seed; }
+	
+	/**
+	 * 
+	 * @return master seed, e.g. to reproduce a run.
+	 */
+	public long getSeed() { return seed; }
+	
+	/**
+	 * Sets the number of threads running the CDS iterations, see 
+	 * {@link core.CDS#setParallelism(int)}.
+	 * 
+	 * @param parallelism number of threads, at least 1.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1.");
+		this.parallelism = parallelism;
+	}
+	
+	public int getParallelism() { return parallelism; }
+	
+	/**
+	 * With exact covering, UCP returns a minimum cover of the prime 
+	 * implicants, see {@link core.UCP#setExact(boolean)}. By default UCP is 
+	 * greedy.
+	 * 
+	 * @param isExact
+	 */
+	public void setExact(boolean isExact) { this.isExact = isExact; }
+	public boolean isExact() { return isExact; }
+	
 	/**
 	 * Run the BOOM algorithm. Returns a set of essential prime implicants.
 	 * 
 	 * @return final solution.
 	 */
 	public TermSet run() {
-		return new UCP(onset, new IE(offset, new CDS(onset, offset, 
-				nIterations).run()).run()).run();
+		return run(Budget.UNLIMITED).getCover();
+	}
+	
+	/**
+	 * Run the BOOM algorithm within a budget, shared by every phase. Once the
+	 * budget is exhausted, every remaining phase returns the best valid cover 
+	 * it has so far.
+	 * 
+	 * @param budget
+	 * @return final solution, complete if no phase was stopped early.
+	 */
+	public Solution run(Budget budget) {
+		// dataset-level heuristics are shared by every phase
+		HeuristicContext context = new HeuristicContext(onset, offset, schema);
+		// every random choice of the run is drawn from the master seed
+		SplittableRandom master = new SplittableRandom(seed);
+		CDS cds = new CDS(context, nIterations, master.nextLong());
+		cds.setParallelism(parallelism);
+		cds.setBudget(budget);
+		IE ie = new IE(context, cds.run(), master.nextLong());
+		ie.setBudget(budget);
+		UCP ucp = new UCP(context, ie.run());
+		ucp.setExact(isExact);
+		ucp.setBudget(budget);
+		TermSet cover = ucp.run();
+		return new Solution(cover, cds.isComplete() && ie.isComplete() && ucp.isComplete());
 	}
 
 }
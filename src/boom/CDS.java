@@ -1,34 +1,104 @@
 package boom;
 
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
-import core.Literal;
 import core.LiteralSet;
 import core.Term;
-import core.MintermList;
+import core.TermList;
 import core.TermSet;
+import heuristic.HeuristicContext;
 
 /**
  * Coverage-Directed Search for BOOM.
+ * </br>
+ * Every iteration draws its random choices from its own stream, split from a
+ * master seed. The same seed returns the same implicants, no matter how many
+ * threads run the iterations.
  * 
  * @author lvl2pillow
  *
  */
 public class CDS extends core.CDS {
 	private final int nIterations;		// number of iterations to run CDS
+	private final long seed;			// master seed of all iterations
+	// random stream of the iteration running in the current thread
+	private final ThreadLocal<SplittableRandom> random = 
+			new ThreadLocal<SplittableRandom>();
 	
-	public CDS(MintermList onset, MintermList offset, int nIterations) {
-		super(onset, offset);
+	public CDS(TermList onset, TermList offset, int nIterations) {
+		this(onset, offset, nIterations, System.nanoTime());
+	}
+	
+	/**
+	 * 
+	 * @param onset
+	 * @param offset
+	 * @param nIterations number of iterations to run CDS.
+	 * @param seed master seed of the random choices.
+	 */
+	public CDS(TermList onset, TermList offset, int nIterations, long seed) {
+		this(new HeuristicContext(onset, offset), nIterations, seed);
+	}
+	
+	public CDS(HeuristicContext context, int nIterations) {
+		this(context, nIterations, System.nanoTime());
+	}
+	
+	/**
+	 * 
+	 * @param context heuristics of the analysis, shared with the other phases.
+	 * @param nIterations number of iterations to run CDS.
+	 * @param seed master seed of the random choices.
+	 */
+	public CDS(HeuristicContext context, int nIterations, long seed) {
+		super(context);
 		this.nIterations = nIterations;
+		this.seed = seed;
 	}
 	
+	/**
+	 * Runs every iteration of CDS, using {@link #getParallelism()} threads.
+	 * Each iteration is a sequential search.
+	 * 
+	 * @return implicants found by all iterations.
+	 */
 	@Override
-	public TermSet run() {
-		TermSet allImplicants = new TermSet();
+	protected TermSet implicants() {
+		// split in iteration order, independent of the number of threads
+		SplittableRandom master = new SplittableRandom(seed);
+		SplittableRandom[] streams = new SplittableRandom[nIterations];
 		for (int i = 0; i < nIterations; ++i)
-			allImplicants.addAll(super.run());
-		return allImplicants;
+			streams[i] = master.split();
+		if (getParallelism() == 1) {
+			TermSet allImplicants = new TermSet();
+			for (int i = 0; i < nIterations; ++i)
+				allImplicants.addAll(iteration(streams[i]));
+			return allImplicants;
+		}
+		packMinterms();
+		ForkJoinPool pool = new ForkJoinPool(getParallelism());
+		try {
+			return pool.invoke(new IterationsTask(streams, 0, nIterations));
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Runs a single iteration of CDS in the current thread.
+	 * 
+	 * @param stream random stream of the iteration.
+	 * @return implicants.
+	 */
+	private TermSet iteration(SplittableRandom stream) {
+		random.set(stream);
+		try {
+			return sequentialImplicants();
+		} finally {
+			random.remove();
+		}
 	}
 	
 	/**
@@ -37,28 +107,50 @@ public class CDS extends core.CDS {
 	 * 
 	 */
 	@Override
-	protected LiteralSet getLiteralCandidates(Term term, MintermList currentOnset) {
-		LiteralSet literalCandidates = new LiteralSet();
-		double maxLiteralFrequency = 0.0;		
-		Map<Literal, Double> literalFrequencyHeuristic = 
-				getLiteralFrequencyHeuristic(term, currentOnset);
-		for (Entry<Literal, Double> entry : literalFrequencyHeuristic.entrySet()) {
-			Literal literal = entry.getKey();
-			double literalFrequency = entry.getValue();
-			if (literalFrequency > maxLiteralFrequency) {
-				maxLiteralFrequency = literalFrequency;
-				literalCandidates.clear();
-				literalCandidates.add(literal);
-			} else if (literalFrequency == maxLiteralFrequency) {
-				literalCandidates.add(literal);
-			}	
-		}
+	protected LiteralSet getLiteralCandidates(Term term, TermList currentOnset) {
+		// literals with the highest literal frequency
+		LiteralSet literalCandidates = 
+				getLiteralFrequency(term, currentOnset).getMaxFrequencyLiterals();
 		// no literal candidates to add
 		if (literalCandidates.isEmpty()) return literalCandidates;
 		// return single random literal candidate
 		LiteralSet randomLiteralCandidate = new LiteralSet();
-		randomLiteralCandidate.add(literalCandidates.getRandomLiteral());
+		SplittableRandom stream = random.get();
+		randomLiteralCandidate.add((stream == null) ? 
+				literalCandidates.randomLiteral() : 
+				literalCandidates.randomLiteral(stream));
 		return randomLiteralCandidate;
 	}
+	
+	/**
+	 * Runs a range of iterations. Every task collects its own implicants, 
+	 * which are merged when the subtasks are joined, so no set is shared 
+	 * between threads.
+	 */
+	private final class IterationsTask extends RecursiveTask<TermSet> {
+		private static final long serialVersionUID = 1L;
+		private final SplittableRandom[] streams;
+		private final int from;		// first iteration (inclusive)
+		private final int to;		// last iteration (exclusive)
+		
+		IterationsTask(SplittableRandom[] streams, int from, int to) {
+			this.streams = streams;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected TermSet compute() {
+			if (to-from <= 1) {
+				return (to > from) ? iteration(streams[from]) : new TermSet();
+			}
+			int mid = (from+to) >>> 1;
+			IterationsTask left = new IterationsTask(streams, from, mid);
+			left.fork();
+			TermSet implicants = new IterationsTask(streams, mid, to).compute();
+			implicants.addAll(left.join());
+			return implicants;
+		}
+	}
 
 }
@@ -6,21 +6,46 @@ import java.util.Map;
 import java.util.Map.Entry;
 */
 
+import java.util.SplittableRandom;
+
 import core.Literal;
 import core.LiteralSet;
 import core.Term;
-import core.MintermList;
+import core.TermList;
 import core.TermSet;
+import heuristic.HeuristicContext;
 
 /**
  * Implicant Expansion for BOOM.
+ * </br>
+ * Every random choice is drawn from the seed and the implicant being 
+ * expanded only, so the same seed returns the same prime implicants, no 
+ * matter the order the implicants are expanded in.
  * 
  * @author lvl2pillow
  *
  */
 public class IE extends core.IE {
-	public IE(MintermList offset, TermSet implicants) {
+	private final long seed;			// seed of the random choices
+	
+	public IE(TermList offset, TermSet implicants) {
 		super(offset, implicants);
+		this.seed = System.nanoTime();
+	}
+	
+	public IE(HeuristicContext context, TermSet implicants) {
+		this(context, implicants, System.nanoTime());
+	}
+	
+	/**
+	 * 
+	 * @param context heuristics of the analysis, shared with the other phases.
+	 * @param implicants
+	 * @param seed seed of the random choices.
+	 */
+	public IE(HeuristicContext context, TermSet implicants, long seed) {
+		super(context, implicants);
+		this.seed = seed;
 	}
 
 	/*
@@ -43,7 +68,7 @@ public class IE extends core.IE {
 		if (literalCandidates.isEmpty()) return literalCandidates;
 		// return single random literal candidate
 		LiteralSet randomLiteralCandidate = new LiteralSet();
-		randomLiteralCandidate.add(literalCandidates.getRandomLiteral());
+		randomLiteralCandidate.add(literalCandidates.randomLiteral(random(currentImplicant)));
 		return randomLiteralCandidate;
 	}
 	*/
@@ -62,7 +87,16 @@ public class IE extends core.IE {
 		if (literalCandidates.isEmpty()) return literalCandidates;
 		// return single random literal candidate
 		LiteralSet randomLiteralCandidate = new LiteralSet();
-		randomLiteralCandidate.add(literalCandidates.getRandomLiteral());
+		randomLiteralCandidate.add(literalCandidates.randomLiteral(random(currentImplicant)));
 		return randomLiteralCandidate;
 	}
+	
+	/**
+	 * 
+	 * @param currentImplicant
+	 * @return random stream of the choice for the implicant.
+	 */
+	private SplittableRandom random(Term currentImplicant) {
+		return new SplittableRandom(seed ^ currentImplicant.getPackedTerm().hashCode());
+	}
 }
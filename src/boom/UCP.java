@@ -1,15 +1,9 @@
 package boom;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-
-import core.Minterm;
-import core.MintermList;
-import core.Term;
+import core.CoverMatrix;
+import core.TermList;
 import core.TermSet;
+import heuristic.HeuristicContext;
 
 /**
  * Solution to the Unate Covering Problem for BOOM.
@@ -18,39 +12,29 @@ import core.TermSet;
  *
  */
 public class UCP extends core.UCP {
-	public UCP(MintermList onset, TermSet primeImplicants) {
+	public UCP(TermList onset, TermSet primeImplicants) {
 		super(onset, primeImplicants);
 	}
+	
+	public UCP(HeuristicContext context, TermSet primeImplicants) {
+		super(context, primeImplicants);
+	}
 
+	/**
+	 * Greedily selects the prime implicant covering the most minterms not 
+	 * covered yet. If there is a tie, the prime implicant covering the most
+	 * minterms that are not covered by other prime implicants is selected.
+	 * 
+	 */
 	@Override
-	protected void getEssentialPrimeImplicantsHelper(TermSet essentialPrimeImplicants, 
-			Map<Minterm, Set<Term>> coverMatrix) {
-		Set<Term> essentialPrimeImplicantCandidates = new HashSet<Term>();
-		int score = 0;							// best heuristic score
-		// least covered heuristic
-		Map<Term, Integer> leastCoveredHeuristic = getLeastCoveredHeuristic();
-		for (Entry<Term, Integer> entry : leastCoveredHeuristic.entrySet()) {
-			Term primeImplicant = entry.getKey();
-			int value = entry.getValue();
-			if (value > score) {
-				essentialPrimeImplicantCandidates.clear();
-				essentialPrimeImplicantCandidates.add(primeImplicant);
-				score = value;
-			} else if (value == score) {
-				essentialPrimeImplicantCandidates.add(primeImplicant);
-			}
-		}
-		// if only one candidate, we don't need to use more heuristics
-		if (essentialPrimeImplicantCandidates.size() == 1) {
-			essentialPrimeImplicants.addAll(essentialPrimeImplicantCandidates);
-			// TODO update the covering
-			return;
-		}
-		// reset score
-		score = 0;
-		// most covered heuristic
-		Map<Term, Integer> mostCoveredHeuristic = getMostCoveredHeuristic(essentialPrimeImplicants);
-		// TODO
+	protected void essentialPrimeImplicantsHelper(TermSet essentialPrimeImplicants, 
+			CoverMatrix coverMatrix) {
+		int column = getMostCoveringSelector().next();
+		// every remaining minterm is covered by some prime implicant, so this
+		// only happens if the cover matrix was modified elsewhere
+		if (column == -1)
+			throw new IllegalStateException("no prime implicant covers the remaining onset.");
+		select(essentialPrimeImplicants, coverMatrix, column);
 	}
 
 }
@@ -1,28 +1,122 @@
 package care;
 
-import core.MintermList;
+import core.Budget;
+import core.Schema;
+import core.Solution;
+import core.TermList;
 import core.TermSet;
+import data.Data;
+import heuristic.HeuristicContext;
 
 public class CARE {
-	final MintermList onset;
-	final MintermList offset;
+	final TermList onset;
+	final TermList offset;
 	final double interactivity;
+	final HeuristicContext context;
 	final Social social;
+	private long seed = System.nanoTime();	// seed of the random choices
+	private int parallelism = 1;			// threads of the CDS search
+	private boolean isExact;				// minimum cover in UCP
 	
-	public CARE(MintermList onset, MintermList offset, double interactivity) {
+	/**
+	 * The schema is derived from the minterms, and the onset and offset are
+	 * interned with it.
+	 * 
+	 * @param onset
+	 * @param offset
+	 * @param interactivity
+	 */
+	public CARE(TermList onset, TermList offset, double interactivity) {
+		this(onset, offset, Schema.interned(onset, offset), interactivity);
+	}
+	
+	/**
+	 * 
+	 * @param onset
+	 * @param offset
+	 * @param schema schema of the data set, with the canonical literals.
+	 * @param interactivity
+	 */
+	public CARE(TermList onset, TermList offset, Schema schema, double interactivity) {
 		this.onset = onset;
 		this.offset = offset;
 		this.interactivity = interactivity;
-		this.social = new Social(onset, offset);
+		// dataset-level heuristics are shared by every phase
+		this.context = new HeuristicContext(onset, offset, schema);
+		this.social = new Social(context);
 	}
 	
+	public CARE(Data data, double interactivity) {
+		this(data.getOnset().toTermList(), data.getOffset().toTermList(), 
+				data.getSchema(), interactivity);
+	}
+	
+	/**
+	 * Sets the seed of every random choice of a run, i.e. of IE. The same
+	 * seed returns the same solution, no matter the parallelism. By default the seed is drawn from 
+	 * {@link System#nanoTime()}.
+	 * 
+	 * @param seed
+	 */
+	public void setSeed(long seed) { this.seed = seed; }
+	
+	/**
+	 * 
+	 * @return seed, e.g. to reproduce a run.
+	 */
+	public long getSeed() { return seed; }
+	
+	/**
+	 * Sets the number of threads of the CDS search, see 
+	 * {@link core.CDS#setParallelism(int)}.
+	 * 
+	 * @param parallelism number of threads, at least 1.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1.");
+		this.parallelism = parallelism;
+	}
+	
+	public int getParallelism() { return parallelism; }
+	
+	/**
+	 * With exact covering, UCP returns a minimum cover of the prime 
+	 * implicants, see {@link core.UCP#setExact(boolean)}. By default UCP is 
+	 * greedy.
+	 * 
+	 * @param isExact
+	 */
+	public void setExact(boolean isExact) { this.isExact = isExact; }
+	public boolean isExact() { return isExact; }
+	
 	/**
 	 * Run the CARE algorithm. Returns a set of essential prime implicants.
 	 * 
 	 * @return final solution.
 	 */
 	public TermSet run() {
-		return new UCP(onset, new IE(offset, new CDS(onset, offset, 
-				social.getSocialHeuristic(), interactivity).run()).run()).run();
+		return run(Budget.UNLIMITED).getCover();
+	}
+	
+	/**
+	 * Run the CARE algorithm within a budget, shared by every phase. Once the
+	 * budget is exhausted, every remaining phase returns the best valid cover 
+	 * it has so far.
+	 * 
+	 * @param budget
+	 * @return final solution, complete if no phase was stopped early.
+	 */
+	public Solution run(Budget budget) {
+		CDS cds = new CDS(context, social.getHeuristicVector(), interactivity);
+		cds.setParallelism(parallelism);
+		cds.setBudget(budget);
+		IE ie = new IE(context, cds.run(), seed);
+		ie.setBudget(budget);
+		UCP ucp = new UCP(context, ie.run());
+		ucp.setExact(isExact);
+		ucp.setBudget(budget);
+		TermSet cover = ucp.run();
+		return new Solution(cover, cds.isComplete() && ie.isComplete() && ucp.isComplete());
 	}
 }
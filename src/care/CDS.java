@@ -1,50 +1,113 @@
 package care;
 
 import java.util.Map;
-import java.util.Map.Entry;
 
 import core.*;
+import heuristic.HeuristicContext;
+import heuristic.LiteralFrequencyCounter;
+import util.Stat;
 
 public class CDS extends core.CDS {
-	private Map<Literal, Double> socialHeuristic;
+	private final double[] socialHeuristic;		// (literal code : social score)
 	private final double interactivity;
+	// scratch vector of normalized literal frequencies, one per thread
+	private final ThreadLocal<double[]> normalizedFrequency = 
+			new ThreadLocal<double[]>();
 //	private final double similarity;
 	
-	public CDS(MintermList onset, MintermList offset, Map<Literal, Double> socialHeuristic, 
+	public CDS(TermList onset, TermList offset, Map<Literal, Double> socialHeuristic, 
 			double interactivity) {
-		super(onset, offset);
+		this(new HeuristicContext(onset, offset), socialHeuristic, interactivity);
+	}
+	
+	public CDS(HeuristicContext context, Map<Literal, Double> socialHeuristic, 
+			double interactivity) {
+		this(context, toVector(socialHeuristic), interactivity);
+	}
+	
+	/**
+	 * 
+	 * @param context
+	 * @param socialHeuristic social score of every literal, by literal code 
+	 * 	(see {@link Social#getHeuristicVector()}).
+	 * @param interactivity
+	 */
+	public CDS(HeuristicContext context, double[] socialHeuristic, 
+			double interactivity) {
+		super(context);
 		this.socialHeuristic = socialHeuristic;
 		// check that 0<=interactivity<=1
-		if (!(interactivity >= 0 || interactivity <= 1))
+		if (interactivity < 0 || interactivity > 1)
 			throw new IllegalArgumentException();
 		this.interactivity = interactivity;
 	}
 	
+	/**
+	 * 
+	 * @param socialHeuristic
+	 * @return social score of every literal, by literal code.
+	 */
+	private static double[] toVector(Map<Literal, Double> socialHeuristic) {
+		int nCodes = 0;
+		for (Literal literal : socialHeuristic.keySet())
+			nCodes = Math.max(nCodes, literal.getCode()+1);
+		double[] vector = new double[nCodes];
+		for (Map.Entry<Literal, Double> entry : socialHeuristic.entrySet())
+			vector[entry.getKey().getCode()] = entry.getValue();
+		return vector;
+	}
+	
 	/**
 	 * CARE integrates the social heuristic with the literal frequency heuristic.
+	 * Literal frequencies are normalized (between 0 and 1) before they are 
+	 * combined with the social score, and a compliment literal tied with its 
+	 * normal literal is dropped. Literals are scored on the primitive 
+	 * heuristic vectors, so scoring does not allocate.
 	 * 
 	 */
 	@Override
-	protected LiteralSet getLiteralCandidates(Term term, MintermList currentOnset) {
+	protected LiteralSet getLiteralCandidates(Term term, TermList currentOnset) {
 		// literals with highest overall score
 		LiteralSet literalCandidates = new LiteralSet();
-		double maxOverallScore = 0.0;		
-		Map<Literal, Double> literalFrequencyHeuristic = 
-				getLiteralFrequencyHeuristic(term, currentOnset);
-		for (Entry<Literal, Double> entry : literalFrequencyHeuristic.entrySet()) {
-			Literal literal = entry.getKey();
-			double literalFrequency = entry.getValue();
-			double overallScore = interactivity*socialHeuristic.get(literal)+
-					(1-interactivity)*literalFrequency;
+		double maxOverallScore = Double.NEGATIVE_INFINITY;
+		LiteralFrequencyCounter literalFrequencyHeuristic = 
+				getLiteralFrequency(term, currentOnset);
+		int[] literalFrequency = literalFrequencyHeuristic.getHeuristicVector();
+		double[] normalized = Stat.normalize(literalFrequency, 
+				getNormalizedFrequency(literalFrequency.length));
+		for (int code = 0; code < literalFrequency.length; ++code) {
+			// literal not in the covered onset
+			if (literalFrequency[code] == 0) continue;
+			// variable already in the current term
+			if (literalFrequencyHeuristic.isInTerm(code)) continue;
+			double social = (code < socialHeuristic.length) ? socialHeuristic[code] : 0.0;
+			double overallScore = Stat.combine(interactivity, social, 
+					normalized[code]);
 			if (overallScore > maxOverallScore) {
 				maxOverallScore = overallScore;
 				literalCandidates.clear();
-				literalCandidates.add(literal);
+				literalCandidates.add(literalFrequencyHeuristic.getLiteral(code));
 			} else if (overallScore == maxOverallScore) {
-				literalCandidates.add(literal);
+				literalCandidates.add(literalFrequencyHeuristic.getLiteral(code));
 			}	
 		}
+		// on a tie, the normal literal is preferred over its compliment
+		literalCandidates.removeComplimentIfNormalExists();
 		return literalCandidates;
 	}
 	
+	/**
+	 * 
+	 * @param nCodes
+	 * @return scratch vector of this thread, at least nCodes long.
+	 */
+	private double[] getNormalizedFrequency(int nCodes) {
+		double[] normalized = normalizedFrequency.get();
+		if (normalized == null || normalized.length < nCodes) {
+			normalized = new double[nCodes];
+			normalizedFrequency.set(normalized);
+		}
+		return normalized;
+	}
+	
 }
@@ -1,21 +1,28 @@
 package care;
 
-import core.LiteralSet;
-import core.Term;
-import core.MintermList;
+import core.TermList;
 import core.TermSet;
+import heuristic.HeuristicContext;
 
-public class IE extends core.IE {
+/**
+ * Implicant Expansion for CARE. CARE extends BOOM, and uses the same 
+ * expansion.
+ * 
+ * @author lvl2pillow
+ *
+ */
+public class IE extends boom.IE {
 
-	public IE(MintermList offset, TermSet implicants) {
+	public IE(TermList offset, TermSet implicants) {
 		super(offset, implicants);
-		// TODO Auto-generated constructor stub
 	}
-
-	@Override
-	protected LiteralSet getLiteralCandidates(Term currentImplicant) {
-		// TODO Auto-generated method stub
-		return null;
+	
+	public IE(HeuristicContext context, TermSet implicants) {
+		super(context, implicants);
+	}
+	
+	public IE(HeuristicContext context, TermSet implicants, long seed) {
+		super(context, implicants, seed);
 	}
 
 }
@@ -1,85 +1,165 @@
 package care;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import core.Literal;
-import core.Term;
+import core.Schema;
 import core.TermList;
+import heuristic.BetweennessCentrality;
+import heuristic.DoubleHeuristicStrategy;
+import heuristic.HeuristicContext;
+import util.Stat;
+
+/**
+ * The social heuristic of CARE. Every variable from the data set represents a
+ * node in a graph, and every pair of variables in a minterm forms an edge
+ * (see {@link heuristic.CoOccurrence}). Only the strongest edges are kept, so
+ * that the graph has an edge density of at most {@link #DENSITYCAP}.
+ * </br>
+ * The social score of a variable is the mean of its normalized overall degree
+ * centrality and normalized overall betweenness centrality, where overall is
+ * the centrality in the onset graph subtract the centrality in the offset
+ * graph. Both literals of a variable have the variable's score.
+ * </br>
+ * Betweenness is exact up to {@link #MAXEXACT} variables, and is approximated
+ * from {@link #PIVOTS} sampled sources above.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class Social implements DoubleHeuristicStrategy {
+	private static final double DENSITYCAP = 0.25;
+	private static final int MAXEXACT = 2048;		// variables
+	private static final int PIVOTS = 256;
+	private static final long SEED = 0;
+	private final HeuristicContext context;
+	private double[] socialHeuristic;		// (literal code : social score)
 
-public class Social {
-	private final TermList onset;
-	private final TermList offset;
-	private final double DENSITYCAP = 0.25;
-	
 	public Social(TermList onset, TermList offset) {
-		this.onset = onset;
-		this.offset = offset;
+		this(new HeuristicContext(onset, offset));
 	}
-	
-	
-	public static void main(String[ args]) {
-		
-		
-		
-		BetweennessCentrality bc = new BetweennessCentrality(null);
-		
-		
+
+	/**
+	 *
+	 * @param context dataset-level heuristics of the analysis.
+	 */
+	public Social(HeuristicContext context) {
+		this.context = context;
 	}
-	
+
 	/**
+	 * The social heuristic is computed once, on first use.
 	 * 
+	 * @return social score of every literal, by literal code.
+	 */
+	@Override
+	public synchronized double[] getHeuristicVector() {
+		if (socialHeuristic != null) return socialHeuristic;
+		int[][] onset = reducedDensity(context.getOnsetCoOccurrence().getAdjacencyMatrix());
+		int[][] offset = reducedDensity(context.getOffsetCoOccurrence().getAdjacencyMatrix());
+		int nVariables = Math.max(onset.length, offset.length);
+		double[] degreeCentralities = subtract(nVariables, 
+				degreeCentralities(onset), degreeCentralities(offset));
+		double[] betweennessCentralities = subtract(nVariables, 
+				betweennessCentralities(onset), betweennessCentralities(offset));
+		Stat.normalize(degreeCentralities, degreeCentralities);
+		Stat.normalize(betweennessCentralities, betweennessCentralities);
+		double[] socialHeuristic = new double[2*nVariables];
+		for (int i = 0; i < nVariables; ++i) {
+			double score = Stat.combine(0.5, degreeCentralities[i], betweennessCentralities[i]);
+			socialHeuristic[Literal.getCode(i, true)] = score;
+			socialHeuristic[Literal.getCode(i, false)] = score;
+		}
+		return this.socialHeuristic = socialHeuristic;
+	}
+	
+	/**
+	 *
 	 * @return mapping of literals and their social score.
 	 */
 	public Map<Literal, Double> getSocialHeuristic() {
-		
-		
-		
-		
-		// TODO check if degree centralities and betweenness centralities have equal length
-		Map<Literal, Double> degreeCentralities = getDegreeCentralities
-		
-		
-		return null;
+		double[] vector = getHeuristicVector();
+		Schema schema = context.getSchema();
+		Map<Literal, Double> socialHeuristic = new HashMap<Literal, Double>();
+		for (int code = 0; code < vector.length; ++code) {
+			Literal literal = (code < schema.codes()) ? schema.getLiteral(code) : 
+					new Literal(code >>> 1, (code & 1) == 1);
+			socialHeuristic.put(literal, vector[code]);
+		}
+		return socialHeuristic;
 	}
-	
-	
+
 	/**
-	 * 
-	 * 
-	 * @param dataSet
-	 * @return
+	 * Keeps only the edges with a weight greater than the cutoff, so that the
+	 * graph has an edge density of at most {@link #DENSITYCAP}.
+	 *
+	 * @param adjacencyMatrix upper half of an adjacency matrix.
+	 * @return reduced upper half of the adjacency matrix.
 	 */
-	private Graph toGraph(TermList dataSet) {
-		int[][] adjacencyMatrix = new int[dataSet.size()][dataSet.size()];
-		for (Term minterm : dataSet) {
-			for (int i = 0; i < minterm.size(); ++i) {
-				// only half of the adjacency matrix needs to be filled
-				for (int j = i+1; j < minterm.size(); ++j) {
-					if (minterm.contains(new Literal()))
-				}
+	private static int[][] reducedDensity(int[][] adjacencyMatrix) {
+		int nVariables = adjacencyMatrix.length;
+		if (nVariables == 0) return adjacencyMatrix;
+		// find cutoff threshold value, over the upper half and diagonal
+		int[] values = new int[nVariables*(nVariables+1)/2];
+		int k = 0;
+		for (int i = 0; i < nVariables; ++i)
+			for (int j = i; j < nVariables; ++j)
+				values[k++] = adjacencyMatrix[i][j];
+		Arrays.sort(values);
+		int threshold = values[values.length-1-(int) ((values.length-1)*DENSITYCAP)];
+		int[][] reducedAdjacencyMatrix = new int[nVariables][nVariables];
+		for (int i = 0; i < nVariables; ++i)
+			for (int j = i+1; j < nVariables; ++j)
+				if (adjacencyMatrix[i][j] > threshold)
+					reducedAdjacencyMatrix[i][j] = adjacencyMatrix[i][j];
+		return reducedAdjacencyMatrix;
+	}
+
+	/**
+	 * Returns the weighted degree centrality of every node in a graph.
+	 *
+	 * @param adjacencyMatrix upper half of an adjacency matrix.
+	 * @return degree centrality of every node.
+	 */
+	private static double[] degreeCentralities(int[][] adjacencyMatrix) {
+		int nVariables = adjacencyMatrix.length;
+		double[] degreeCentralities = new double[nVariables];
+		for (int i = 0; i < nVariables; ++i) {
+			for (int j = i+1; j < nVariables; ++j) {
+				degreeCentralities[i] += adjacencyMatrix[i][j];
+				degreeCentralities[j] += adjacencyMatrix[i][j];
 			}
 		}
+		return degreeCentralities;
 	}
-	
+
 	/**
-	 * Returns the degree centrality of every node in a graph.
-	 * 
-	 * @param graph
-	 * @return mapping of every node with their degree centrality.
+	 * Returns the betweenness centrality of every node in a graph.
+	 *
+	 * @param adjacencyMatrix upper half of an adjacency matrix.
+	 * @return betweenness centrality of every node.
 	 */
-	private Map<Literal, Double> getDegreeCentralities() {
-		return new HashMap<Literal, Double>();
+	private static double[] betweennessCentralities(int[][] adjacencyMatrix) {
+		BetweennessCentrality betweennessCentrality =
+				(adjacencyMatrix.length <= MAXEXACT) ?
+				new BetweennessCentrality(adjacencyMatrix) :
+				new BetweennessCentrality(adjacencyMatrix, PIVOTS, SEED);
+		return betweennessCentrality.getBetweenness();
 	}
-	
+
 	/**
-	 * Returns the betweenness centrality of every node in a graph.
-	 * 
-	 * @param graph
-	 * @return mapping of every node with their betweenness centrality.
+	 *
+	 * @return onset centralities subtract offset centralities.
 	 */
-	private Map<Literal, Double> getBetweennessCentralities() {
-		return new HashMap<Literal, Double>();
+	private static double[] subtract(int nVariables, double[] onset, double[] offset) {
+		double[] overall = new double[nVariables];
+		for (int i = 0; i < onset.length; ++i)
+			overall[i] += onset[i];
+		for (int i = 0; i < offset.length; ++i)
+			overall[i] -= offset[i];
+		return overall;
 	}
-	
+
 }
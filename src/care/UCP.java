@@ -1,19 +1,24 @@
 package care;
 
-import core.MintermList;
+import core.TermList;
 import core.TermSet;
+import heuristic.HeuristicContext;
 
-public class UCP extends core.UCP {
+/**
+ * Solution to the Unate Covering Problem for CARE. CARE extends BOOM, and
+ * uses the same greedy covering.
+ * 
+ * @author lvl2pillow
+ *
+ */
+public class UCP extends boom.UCP {
 
-	public UCP(MintermList onset, TermSet primeImplicants) {
+	public UCP(TermList onset, TermSet primeImplicants) {
 		super(onset, primeImplicants);
-		// TODO Auto-generated constructor stub
 	}
-
-	@Override
-	protected TermSet getEssentialPrimeImplicants() {
-		// TODO Auto-generated method stub
-		return null;
+	
+	public UCP(HeuristicContext context, TermSet primeImplicants) {
+		super(context, primeImplicants);
 	}
 
 }
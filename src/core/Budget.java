@@ -0,0 +1,83 @@
+package core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of an analysis, with an optional {@link CancellationToken}. The
+ * loops of CDS, IE and UCP check the budget, and stop early once it is
+ * exhausted. The deadline starts when the budget is created, so a budget 
+ * shared by every phase bounds the whole analysis.
+ *
+ * @author lvl2pillow
+ *
+ */
+public final class Budget {
+	/** Never exhausted. */
+	public static final Budget UNLIMITED = new Budget(null, Long.MAX_VALUE);
+	private final CancellationToken token;		// or null
+	private final long deadline;				// System.nanoTime(), or Long.MAX_VALUE
+
+	/**
+	 *
+	 * @param timeout
+	 * @param unit
+	 */
+	public Budget(long timeout, TimeUnit unit) {
+		this(timeout, unit, null);
+	}
+
+	/**
+	 *
+	 * @param timeout
+	 * @param unit
+	 * @param token cancellation token, or {@code null}.
+	 */
+	public Budget(long timeout, TimeUnit unit, CancellationToken token) {
+		this(token, deadline(timeout, unit));
+	}
+
+	/**
+	 * A budget without a deadline, exhausted only when cancelled.
+	 *
+	 * @param token
+	 */
+	public Budget(CancellationToken token) {
+		this(token, Long.MAX_VALUE);
+	}
+
+	private static long deadline(long timeout, TimeUnit unit) {
+		long nanos = Math.max(0, unit.toNanos(timeout));
+		// too far ahead for the clock to reach
+		if (nanos >= Long.MAX_VALUE/2) return Long.MAX_VALUE;
+		return System.nanoTime()+nanos;
+	}
+
+	private Budget(CancellationToken token, long deadline) {
+		this.token = token;
+		this.deadline = deadline;
+	}
+
+	/**
+	 *
+	 * @return {@code true} if the deadline has passed or the analysis is
+	 * 	cancelled.
+	 */
+	public boolean isExhausted() {
+		if (token != null && token.isCancelled()) return true;
+		// the clock is not read without a deadline
+		return deadline != Long.MAX_VALUE && System.nanoTime()-deadline >= 0;
+	}
+
+	/**
+	 *
+	 * @param unit
+	 * @return time left before the deadline, {@link Long#MAX_VALUE} without a
+	 * 	deadline.
+	 */
+	public long remaining(TimeUnit unit) {
+		if (deadline == Long.MAX_VALUE) return Long.MAX_VALUE;
+		return unit.convert(Math.max(0, deadline-System.nanoTime()), 
+				TimeUnit.NANOSECONDS);
+	}
+
+}
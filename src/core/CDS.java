@@ -1,7 +1,16 @@
 package core;
 
-import java.util.LinkedList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import heuristic.HeuristicContext;
+import heuristic.LiteralFrequencyCounter;
 
 /**
  * Abstract class for Coverage-Directed Search.
@@ -13,15 +22,37 @@ public abstract class CDS {
 	protected final TermList onset;
 	protected final TermList offset;
 	protected final LiteralSet literals;		// all unique literals
+	protected final LiteralIndex offsetIndex;	// bitmap index of the offset
+	protected final HeuristicContext context;	// dataset-level heuristics
+	private int parallelism = 1;				// number of threads for the search
+	private Budget budget = Budget.UNLIMITED;
+	private int frontierBound = Integer.MAX_VALUE;	// permutations on the heap per queue
+	private volatile boolean isStopped;			// last run stopped by the budget
+	private final PhaseCounters counters = new PhaseCounters();
+	private final AtomicLong pendingTasks = new AtomicLong();	// frontier of the parallel search
+	// literal frequency counter of the current thread
+	private final ThreadLocal<LiteralFrequencyCounter> literalFrequency = 
+			new ThreadLocal<LiteralFrequencyCounter>();
 	
 	public CDS(TermList onset, TermList offset) {
-		this.onset = onset;
-		this.offset = offset;
+		this(new HeuristicContext(onset, offset));
+	}
+	
+	/**
+	 * 
+	 * @param context heuristics of the analysis, shared with the other phases.
+	 */
+	public CDS(HeuristicContext context) {
+		this.context = context;
+		this.onset = context.getOnset();
+		this.offset = context.getOffset();
+		this.offsetIndex = context.getOffsetIndex();
 		this.literals = new LiteralSet();
 		try {
+			Schema schema = context.getSchema();
 			for (Literal literal : onset.get(0)) {
-				literals.add(new Literal(literal.getIndex(), true));
-				literals.add(new Literal(literal.getIndex(), false));
+				literals.add(schema.getLiteral(literal.getIndex(), true));
+				literals.add(schema.getLiteral(literal.getIndex(), false));
 			}
 		} catch (NullPointerException e) {
 			System.err.println("onset is empty.");
@@ -30,26 +61,155 @@ public abstract class CDS {
 	}
 	
 	/**
-	 * Run the Coverage-Directed Search.
+	 * Run the Coverage-Directed Search. Every run is recorded as a 
+	 * {@link PhaseEvent}, and counted in {@link #getCounters()}.
+	 * </br>
+	 * If the search is stopped by its {@link Budget}, the minterms of the 
+	 * onset not covered by the implicants found so far are added as 
+	 * implicants themselves, so the implicants still cover the onset.
 	 * 
 	 * @return implicants.
+	 * @throws IllegalStateException if the onset and offset contradict.
 	 */
 	public TermSet run() {
-		return implicants();
+		checkContradictions();
+		isStopped = false;
+		PhaseRun phaseRun = counters.begin("CDS");
+		TermSet implicants = implicants();
+		if (isStopped) {
+			TermList uncoveredOnset = new TermList(onset);
+			for (Term implicant : implicants)
+				uncoveredOnset.removeTermsCoveredBy(implicant);
+			for (Term minterm : uncoveredOnset)
+				implicants.add(new Term(minterm));
+		}
+		phaseRun.commit(this, implicants.size());
+		return implicants;
+	}
+	
+	/**
+	 * Fails fast if a minterm is in both the onset and offset, as the search
+	 * can never cover it. Resolve contradictions first with 
+	 * {@link Contradictions#resolve(TermList, TermList, Contradictions.Policy)}.
+	 * 
+	 * @throws IllegalStateException if the onset and offset contradict.
+	 */
+	protected void checkContradictions() {
+		Contradictions contradictions = Contradictions.find(onset, offset);
+		if (!contradictions.isEmpty())
+			throw new IllegalStateException(contradictions.toString());
+	}
+	
+	/**
+	 * Sets the number of threads used by the search. With a parallelism of 1 
+	 * (default) the search runs sequentially in the calling thread. Otherwise
+	 * every onset permutation and term permutation is a task on a 
+	 * {@link ForkJoinPool}, and {@link #getLiteralCandidates(Term, TermList)} must
+	 * be thread-safe.
+	 * </br>
+	 * The search explores the same permutations in either mode, so for a
+	 * deterministic {@code getLiteralCandidates} the parallel search returns the
+	 * same implicants as the sequential search.
+	 * 
+	 * @param parallelism number of threads, at least 1.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1.");
+		this.parallelism = parallelism;
 	}
 	
+	public int getParallelism() { return parallelism; }
+	
+	/**
+	 * The search stops early once the budget is exhausted, see {@link #run()}.
+	 * 
+	 * @param budget
+	 */
+	public void setBudget(Budget budget) { this.budget = budget; }
+	public Budget getBudget() { return budget; }
+	
+	/**
+	 * Bounds the permutations kept on the heap by each queue of the 
+	 * sequential search. Permutations beyond the bound are spilled to a 
+	 * temporary file, see {@link SpillingQueue}. By default the queues are
+	 * unbounded.
+	 * 
+	 * @param frontierBound permutations per queue, at least 2.
+	 */
+	public void setFrontierBound(int frontierBound) {
+		if (frontierBound < 2)
+			throw new IllegalArgumentException("frontier bound must be at least 2.");
+		this.frontierBound = frontierBound;
+	}
+	
+	public int getFrontierBound() { return frontierBound; }
+	
+	/**
+	 * 
+	 * @return {@code false} if the last run was stopped by the budget.
+	 */
+	public boolean isComplete() { return !isStopped; }
+	
+	/**
+	 * Checks the budget, and marks the run as stopped once it is exhausted.
+	 * 
+	 * @return {@code true} if the search must stop.
+	 */
+	protected boolean isOverBudget() {
+		if (isStopped) return true;
+		if (!budget.isExhausted()) return false;
+		isStopped = true;
+		return true;
+	}
+	public HeuristicContext getContext() { return context; }
+	
+	/**
+	 * 
+	 * @return counters of all searches so far.
+	 */
+	public PhaseCounters getCounters() { return counters; }
+	
+	/**
+	 * 
+	 * @return number of term permutations generated by all searches so far,
+	 * 	including pruned duplicates.
+	 */
+	public long getTermsGenerated() { return counters.getTermsGenerated(); }
+	
+	/**
+	 * 
+	 * @return number of term permutations pruned by all searches so far, 
+	 * 	because the same set of literals was already visited.
+	 */
+	public long getDuplicatesPruned() { return counters.getDuplicatesPruned(); }
+	
 	/**
 	 * Returns the cumulation of sets of implicants that wholly covers the onset.
 	 * 
 	 * @return
 	 */
 	protected TermSet implicants() {
+		return (parallelism > 1) ? parallelImplicants() : sequentialImplicants();
+	}
+	
+	/**
+	 * Sequential search, draining a single queue of onset permutations.
+	 * 
+	 * @return
+	 */
+	protected TermSet sequentialImplicants() {
 		TermSet implicants = new TermSet();
-		Queue<TermList> onsetPermutations = new LinkedList<TermList>();
-		// initial permutation is the complete onset
-		onsetPermutations.add(new TermList(onset));
-		while (!onsetPermutations.isEmpty())
-			implicantsHelper(implicants, onsetPermutations, onsetPermutations.poll());
+		// permutations are subsets of the onset, spilled as row numbers
+		try (SpillingQueue<TermList> onsetPermutations = new SpillingQueue<TermList>(
+				SpillingQueue.subsetCodec(onset), frontierBound)) {
+			// initial permutation is the complete onset
+			onsetPermutations.add(new TermList(onset));
+			while (!onsetPermutations.isEmpty() && !isOverBudget()) {
+				implicantsHelper(implicants, onsetPermutations, onsetPermutations.poll());
+				counters.onsetPermutations(onsetPermutations.size());
+			}
+		}
 		return implicants;
 	}
 	
@@ -61,9 +221,11 @@ public abstract class CDS {
 	 */
 	protected void implicantsHelper(TermSet implicants, 
 			Queue<TermList> onsetPermutations, TermList currentOnset) {
+		counters.iteration();
 		// stop if current onset is empty, i.e. completely covered
 		if (currentOnset.isEmpty()) return;
 		TermSet implicantCandidates = implicantCandidates(currentOnset);
+		counters.coverChecks((long) currentOnset.size()*implicantCandidates.size());
 		// update covering and add new onset permutations
 		for (Term implicant : implicantCandidates) {
 			TermList newOnset = new TermList(currentOnset);
@@ -74,50 +236,140 @@ public abstract class CDS {
 		implicants.addAll(implicantCandidates);
 	}
 	
+	/**
+	 * Parallel search on a {@link ForkJoinPool} with {@link #getParallelism()}
+	 * threads. Every onset permutation is a task, idle threads steal tasks from
+	 * busy threads.
+	 * 
+	 * @return
+	 */
+	protected TermSet parallelImplicants() {
+		packMinterms();
+		Set<Term> implicants = ConcurrentHashMap.newKeySet();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			// initial permutation is the complete onset
+			forked();
+			pool.invoke(new ImplicantsTask(null, implicants, new TermList(onset)));
+		} finally {
+			pool.shutdown();
+		}
+		return new TermSet(implicants);
+	}
+	
+	/**
+	 * Packs every minterm of the onset and offset. This must be done before
+	 * the minterms are shared between threads.
+	 */
+	protected void packMinterms() {
+		for (Term minterm : onset) minterm.packed();
+		for (Term minterm : offset) minterm.packed();
+	}
+	
 	/**
 	 * Returns all "good" implicant candidates given the current state of the 
 	 * onset covering.
+	 * </br>
+	 * A term reached through different orders of adding the same literals is
+	 * only expanded once.
 	 * 
 	 * @param currentOnset current permutation of the onset.
 	 * @return all "good" implicant candidates.
 	 */
 	protected TermSet implicantCandidates(TermList currentOnset) {
+		Term emptyTerm = new Term();
 		TermSet implicantCandidates = new TermSet();
-		Queue<Term> termPermutations = new LinkedList<Term>();
-		// initial permutation is an empty term
-		termPermutations.add(new Term());
-		while (!termPermutations.isEmpty()) {
-			implicantCandidatesHelper(implicantCandidates, termPermutations, 
-					termPermutations.poll(), currentOnset);
+		Set<PackedTerm> visitedTerms = new HashSet<PackedTerm>();
+		try (SpillingQueue<Term> termPermutations = new SpillingQueue<Term>(
+				SpillingQueue.termCodec(context.getSchema()), frontierBound)) {
+			// initial permutation is an empty term
+			visitedTerms.add(emptyTerm.getPackedTerm());
+			termPermutations.add(emptyTerm);
+			while (!termPermutations.isEmpty() && !isOverBudget()) {
+				implicantCandidatesHelper(implicantCandidates, visitedTerms, 
+						termPermutations, termPermutations.poll(), currentOnset);
+				counters.frontier(termPermutations.size());
+			}
+		} finally {
+			literalFrequency.remove();
 		}
 		return implicantCandidates;
 	}
 	
+	/**
+	 * Parallel counterpart of {@link #implicantCandidates(TermList)}. Every 
+	 * term permutation is a task on the pool of the calling task.
+	 * 
+	 * @param currentOnset current permutation of the onset.
+	 * @return all "good" implicant candidates.
+	 */
+	protected TermSet parallelImplicantCandidates(TermList currentOnset) {
+		Term emptyTerm = new Term();
+		Set<Term> implicantCandidates = ConcurrentHashMap.newKeySet();
+		Set<PackedTerm> visitedTerms = ConcurrentHashMap.newKeySet();
+		visitedTerms.add(emptyTerm.getPackedTerm());
+		// initial permutation is an empty term
+		forked();
+		new ImplicantCandidatesTask(null, implicantCandidates, visitedTerms, 
+				emptyTerm, currentOnset).invoke();
+		return new TermSet(implicantCandidates);
+	}
+	
 	/**
 	 * 
 	 * @param implicantCandidates all implicant candidates found.
+	 * @param visitedTerms literals of all term permutations added so far.
 	 * @param termPermutations all permutations of unbuilt terms.
 	 * @param currentTerm current term under construction.
 	 * @param currentOnset current permutation of the onset.
 	 */
 	protected void implicantCandidatesHelper(TermSet implicantCandidates, 
-			Queue<Term> termPermutations, Term currentTerm, 
-			TermList currentOnset) {
+			Set<PackedTerm> visitedTerms, Queue<Term> termPermutations, 
+			Term currentTerm, TermList currentOnset) {
+		counters.coverChecks(offsetIndex.rows());
 		// stop if current term does not intersect with the offset
-		if (!currentTerm.intersects(offset)) {
-			implicantCandidates.add(currentTerm);
+		if (!offsetIndex.intersects(currentTerm)) {
+			implicantCandidates.add(sortLiterals(currentTerm));
 			return;
 		}
-		LiteralSet literalCandidates = literalCandiates(currentTerm, currentOnset);
+		LiteralSet literalCandidates = getLiteralCandidates(currentTerm, currentOnset);
 		// add new term permutations
 		// TODO log if multiple literals
 		for (Literal literal : literalCandidates) {
 			Term newTerm = new Term(currentTerm);
 			newTerm.add(literal);
+			if (isDuplicate(visitedTerms, newTerm)) continue;
 			termPermutations.add(newTerm);
 		}
 	}
 	
+	/**
+	 * Marks a new term permutation as visited.
+	 * 
+	 * @param visitedTerms
+	 * @param newTerm
+	 * @return {@code true} if the same set of literals was already visited.
+	 */
+	private boolean isDuplicate(Set<PackedTerm> visitedTerms, Term newTerm) {
+		counters.termGenerated();
+		if (visitedTerms.add(newTerm.getPackedTerm())) return false;
+		counters.duplicatePruned();
+		return true;
+	}
+	
+	/**
+	 * Orders the literals of an implicant candidate by variable index. Only
+	 * one insertion order of a set of literals survives the pruning, so this
+	 * keeps the implicants independent of which order was visited first.
+	 * 
+	 * @param term
+	 * @return the same term, sorted.
+	 */
+	private static Term sortLiterals(Term term) {
+		term.sort(Comparator.comparingInt(Literal::getCode));
+		return term;
+	}
+	
 	/**
 	 * Abstract method for finding set of literal candidates. This method
 	 * must be implemented in a concrete class.
@@ -126,6 +378,119 @@ public abstract class CDS {
 	 * @param term current term under construction.
 	 * @return set of literal candidates to add to term.
 	 */
-	protected abstract LiteralSet literalCandiates(Term term, TermList currentOnset);
+	protected abstract LiteralSet getLiteralCandidates(Term term, TermList currentOnset);
+	
+	/**
+	 * Returns the literal frequencies of the minterms of the current onset 
+	 * that are not covered by a term. Every thread keeps a counter for the 
+	 * onset permutation it searches, which is moved from term to term by 
+	 * deltas instead of re-counting the onset.
+	 * 
+	 * @param term current term under construction.
+	 * @param currentOnset current permutation of the onset.
+	 * @return literal frequency counter moved to the term. The counter must 
+	 * 	not be used after the next call from the same thread.
+	 */
+	protected LiteralFrequencyCounter getLiteralFrequency(Term term, 
+			TermList currentOnset) {
+		LiteralFrequencyCounter counter = literalFrequency.get();
+		if (counter == null || counter.getDataSet() != currentOnset) {
+			counter = new LiteralFrequencyCounter(currentOnset);
+			literalFrequency.set(counter);
+		}
+		counter.setTerm(term);
+		return counter;
+	}
+	
+	/**
+	 * Counts a forked task of the parallel search.
+	 */
+	private void forked() {
+		counters.pendingTasks(pendingTasks.incrementAndGet());
+	}
+	
+	/**
+	 * Parallel counterpart of {@link CDS#implicantsHelper}. Completes when 
+	 * all onset permutations derived from this permutation are searched.
+	 */
+	private final class ImplicantsTask extends CountedCompleter<Void> {
+		private static final long serialVersionUID = 1L;
+		private final Set<Term> implicants;
+		private final TermList currentOnset;
+		
+		ImplicantsTask(CountedCompleter<?> parent, Set<Term> implicants, 
+				TermList currentOnset) {
+			super(parent);
+			this.implicants = implicants;
+			this.currentOnset = currentOnset;
+		}
+		
+		@Override
+		public void compute() {
+			pendingTasks.decrementAndGet();
+			counters.iteration();
+			// stop if current onset is empty, i.e. completely covered
+			if (!currentOnset.isEmpty() && !isOverBudget()) {
+				TermSet implicantCandidates = parallelImplicantCandidates(currentOnset);
+				counters.coverChecks((long) currentOnset.size()*implicantCandidates.size());
+				// update covering and fork new onset permutations
+				for (Term implicant : implicantCandidates) {
+					TermList newOnset = new TermList(currentOnset);
+					newOnset.removeTermsCoveredBy(implicant);
+					addToPendingCount(1);
+					forked();
+					new ImplicantsTask(this, implicants, newOnset).fork();
+				}
+				// add implicants
+				implicants.addAll(implicantCandidates);
+			}
+			tryComplete();
+		}
+	}
+	
+	/**
+	 * Parallel counterpart of {@link CDS#implicantCandidatesHelper}. Completes
+	 * when all terms built from this term are searched.
+	 */
+	private final class ImplicantCandidatesTask extends CountedCompleter<Void> {
+		private static final long serialVersionUID = 1L;
+		private final Set<Term> implicantCandidates;
+		private final Set<PackedTerm> visitedTerms;
+		private final Term currentTerm;
+		private final TermList currentOnset;
+		
+		ImplicantCandidatesTask(CountedCompleter<?> parent, 
+				Set<Term> implicantCandidates, Set<PackedTerm> visitedTerms, 
+				Term currentTerm, TermList currentOnset) {
+			super(parent);
+			this.implicantCandidates = implicantCandidates;
+			this.visitedTerms = visitedTerms;
+			this.currentTerm = currentTerm;
+			this.currentOnset = currentOnset;
+		}
+		
+		@Override
+		public void compute() {
+			pendingTasks.decrementAndGet();
+			counters.coverChecks(offsetIndex.rows());
+			// stop if current term does not intersect with the offset
+			if (!offsetIndex.intersects(currentTerm)) {
+				implicantCandidates.add(sortLiterals(currentTerm));
+			} else if (!isOverBudget()) {
+				LiteralSet literalCandidates = getLiteralCandidates(currentTerm, currentOnset);
+				// fork new term permutations
+				for (Literal literal : literalCandidates) {
+					Term newTerm = new Term(currentTerm);
+					newTerm.add(literal);
+					if (isDuplicate(visitedTerms, newTerm)) continue;
+					addToPendingCount(1);
+					forked();
+					new ImplicantCandidatesTask(this, implicantCandidates, 
+							visitedTerms, newTerm, currentOnset).fork();
+				}
+			}
+			tryComplete();
+		}
+	}
 	
 }
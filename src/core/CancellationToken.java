@@ -0,0 +1,20 @@
+package core;
+
+/**
+ * Cancels an analysis from another thread. A cancelled analysis stops at the
+ * next check of its {@link Budget}, and returns the best valid cover found so
+ * far.
+ *
+ * @author lvl2pillow
+ *
+ */
+public final class CancellationToken {
+	private volatile boolean isCancelled = false;
+
+	/**
+	 * Requests cancellation. A token can not be reset.
+	 */
+	public void cancel() { isCancelled = true; }
+	public boolean isCancelled() { return isCancelled; }
+
+}
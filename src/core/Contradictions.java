@@ -0,0 +1,205 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contradictory configurations are minterms found in both the onset and the
+ * offset. No term can cover such a minterm of the onset without intersecting
+ * the offset, so the Coverage-Directed Search can not complete.
+ * </br>
+ * Contradictions are found by a hash join of the onset and offset, in linear
+ * time. Minterms count by their weights.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class Contradictions {
+	/**
+	 * How contradictions are resolved.
+	 */
+	public enum Policy {
+		/** Remove the configuration from both the onset and the offset. */
+		DROP,
+		/**
+		 * Keep the configuration in the set where it has the higher proportion
+		 * (count over size of the set), and remove it from the other set. If
+		 * there is a tie, remove it from both.
+		 */
+		MAJORITY,
+		/** Move every occurrence of the configuration in the onset to the offset. */
+		OFFSET
+	}
+
+	private final Map<PackedTerm, Conflict> conflicts;	// (configuration : counts)
+	private final long onsetWeight;						// weight of the onset
+	private final long offsetWeight;					// weight of the offset
+
+	private Contradictions(Map<PackedTerm, Conflict> conflicts, long onsetWeight,
+			long offsetWeight) {
+		this.conflicts = conflicts;
+		this.onsetWeight = onsetWeight;
+		this.offsetWeight = offsetWeight;
+	}
+
+	/**
+	 * Finds contradictory configurations between the onset and offset.
+	 *
+	 * @param onset
+	 * @param offset
+	 * @return
+	 */
+	public static Contradictions find(TermList onset, TermList offset) {
+		// build on the onset
+		Map<PackedTerm, Conflict> configurations = new HashMap<PackedTerm, Conflict>();
+		long onsetWeight = 0;
+		for (Term minterm : onset) {
+			Conflict conflict = configurations.get(minterm.packed());
+			if (conflict == null) {
+				conflict = new Conflict(minterm);
+				configurations.put(minterm.getPackedTerm(), conflict);
+			}
+			conflict.onsetCount += minterm.getWeight();
+			onsetWeight += minterm.getWeight();
+		}
+		// probe with the offset
+		Map<PackedTerm, Conflict> conflicts = new LinkedHashMap<PackedTerm, Conflict>();
+		long offsetWeight = 0;
+		for (Term minterm : offset) {
+			offsetWeight += minterm.getWeight();
+			Conflict conflict = configurations.get(minterm.packed());
+			if (conflict == null) continue;
+			conflict.offsetCount += minterm.getWeight();
+			if (!conflicts.containsKey(minterm.packed()))
+				conflicts.put(minterm.getPackedTerm(), conflict);
+		}
+		return new Contradictions(conflicts, onsetWeight, offsetWeight);
+	}
+
+	/**
+	 * Resolves the contradictions by a policy. The onset and offset are
+	 * modified in place.
+	 *
+	 * @param onset the onset the contradictions were found in.
+	 * @param offset the offset the contradictions were found in.
+	 * @param policy
+	 */
+	public void resolve(TermList onset, TermList offset, Policy policy) {
+		if (conflicts.isEmpty()) return;
+		List<Term> movedMinterms = new ArrayList<Term>();
+		removeIf(onset, true, policy, movedMinterms);
+		removeIf(offset, false, policy, null);
+		offset.addAll(movedMinterms);
+	}
+
+	/**
+	 * Removes the contradictory minterms of one set that the policy does not
+	 * keep.
+	 */
+	private void removeIf(TermList dataSet, boolean isOnset, Policy policy,
+			List<Term> movedMinterms) {
+		Iterator<Term> i = dataSet.iterator();
+		while (i.hasNext()) {
+			Term minterm = i.next();
+			Conflict conflict = conflicts.get(minterm.packed());
+			if (conflict == null || isKept(conflict, isOnset, policy)) continue;
+			i.remove();
+			if (isOnset && policy == Policy.OFFSET)
+				movedMinterms.add(minterm);
+		}
+	}
+
+	private boolean isKept(Conflict conflict, boolean isOnset, Policy policy) {
+		switch (policy) {
+		case DROP:
+			return false;
+		case OFFSET:
+			return !isOnset;
+		case MAJORITY:
+			// compare count/onsetWeight with count/offsetWeight, exactly
+			int comparison = Long.compare(conflict.onsetCount*offsetWeight,
+					conflict.offsetCount*onsetWeight);
+			return isOnset ? comparison > 0 : comparison < 0;
+		default:
+			throw new IllegalArgumentException("unknown policy: "+policy);
+		}
+	}
+
+	/**
+	 *
+	 * @return {@code true} if no configuration is in both the onset and offset.
+	 */
+	public boolean isEmpty() { return conflicts.isEmpty(); }
+
+	/**
+	 *
+	 * @return number of contradictory configurations.
+	 */
+	public int size() { return conflicts.size(); }
+
+	/**
+	 *
+	 * @return a minterm of every contradictory configuration.
+	 */
+	public List<Term> getConfigurations() {
+		List<Term> configurations = new ArrayList<Term>();
+		for (Conflict conflict : conflicts.values())
+			configurations.add(conflict.minterm);
+		return configurations;
+	}
+
+	/**
+	 *
+	 * @param minterm
+	 * @return number of occurrences of the configuration in the onset, 0 if it
+	 * 	is not contradictory.
+	 */
+	public long getOnsetCount(Term minterm) {
+		Conflict conflict = conflicts.get(minterm.packed());
+		return (conflict == null) ? 0 : conflict.onsetCount;
+	}
+
+	/**
+	 *
+	 * @param minterm
+	 * @return number of occurrences of the configuration in the offset, 0 if
+	 * 	it is not contradictory.
+	 */
+	public long getOffsetCount(Term minterm) {
+		Conflict conflict = conflicts.get(minterm.packed());
+		return (conflict == null) ? 0 : conflict.offsetCount;
+	}
+
+	/**
+	 * A report of every contradictory configuration, with its counts.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		report.append(conflicts.size()).append(" contradictory configuration(s)");
+		for (Conflict conflict : conflicts.values()) {
+			report.append(System.lineSeparator()).append(conflict.minterm)
+			.append(" onset: ").append(conflict.onsetCount)
+			.append(", offset: ").append(conflict.offsetCount);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Counts of a configuration.
+	 */
+	private static final class Conflict {
+		private final Term minterm;
+		private long onsetCount;
+		private long offsetCount;
+
+		Conflict(Term minterm) {
+			this.minterm = minterm;
+		}
+	}
+
+}
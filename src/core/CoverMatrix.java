@@ -0,0 +1,266 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A cover matrix shows which minterms (rows) are covered by which prime
+ * implicants (columns). Every column is stored as a bitset of the rows it
+ * covers.
+ * </br>
+ * The matrix keeps track of the rows that are not covered yet. Rows are
+ * removed in place as prime implicants are chosen, instead of rebuilding the
+ * matrix. Rows not covered by any prime implicant are never active.
+ * </br>
+ * Rows of a compressed onset count by their weights (see
+ * {@link Term#getWeight()}), so counts are those of the uncompressed onset.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class CoverMatrix {
+	private final List<Term> primeImplicants;		// (column : prime implicant)
+	private final Map<Term, Integer> columnIndex;	// (prime implicant : column)
+	private final int nRows;
+	private final int nWords;						// number of 64-bit words per bitset
+	private final long[][] columns;					// (column : bitset of rows)
+	private final long[] activeRows;				// rows not covered yet
+	private final int[] weights;					// (row : weight), or null if all 1
+
+	/**
+	 * Builds the cover matrix in parallel over blocks of 64 rows.
+	 *
+	 * @param onset rows of the matrix.
+	 * @param primeImplicants columns of the matrix.
+	 */
+	public CoverMatrix(TermList onset, Collection<Term> primeImplicants) {
+		this.primeImplicants = new ArrayList<Term>(primeImplicants);
+		this.columnIndex = new HashMap<Term, Integer>();
+		for (int j = 0; j < this.primeImplicants.size(); ++j)
+			columnIndex.put(this.primeImplicants.get(j), j);
+		this.nRows = onset.size();
+		this.nWords = (nRows+63) >>> 6;
+		int nColumns = this.primeImplicants.size();
+		this.columns = new long[nColumns][nWords];
+		this.activeRows = new long[nWords];
+		int[] weights = new int[nRows];
+		boolean isWeighted = false;
+		for (int i = 0; i < nRows; ++i) {
+			weights[i] = onset.get(i).getWeight();
+			isWeighted |= weights[i] != 1;
+		}
+		this.weights = isWeighted ? weights : null;
+		// pack before sharing between threads
+		final PackedTerm[] rows = new PackedTerm[nRows];
+		for (int i = 0; i < nRows; ++i)
+			rows[i] = onset.get(i).packed();
+		final PackedTerm[] packedColumns = new PackedTerm[nColumns];
+		for (int j = 0; j < nColumns; ++j)
+			packedColumns[j] = this.primeImplicants.get(j).packed();
+		// every word of rows is filled by one thread
+		IntStream.range(0, nWords).parallel().forEach(w -> {
+			int to = Math.min(nRows, (w+1) << 6);
+			for (int i = w << 6; i < to; ++i) {
+				long bit = 1L << i;
+				for (int j = 0; j < nColumns; ++j) {
+					if (packedColumns[j].covers(rows[i])) {
+						columns[j][w] |= bit;
+						activeRows[w] |= bit;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Removes all rows covered by a column, i.e. the column is chosen.
+	 *
+	 * @param column
+	 * @return weight of the rows removed.
+	 */
+	public int removeRowsCoveredBy(int column) {
+		int nRemoved = 0;
+		long[] bitset = columns[column];
+		for (int w = 0; w < nWords; ++w) {
+			nRemoved += count(activeRows[w] & bitset[w], w);
+			activeRows[w] &= ~bitset[w];
+		}
+		return nRemoved;
+	}
+
+	/**
+	 *
+	 * @param column
+	 * @return weight of rows not covered yet that are covered by the column.
+	 */
+	public int coverCount(int column) {
+		int count = 0;
+		long[] bitset = columns[column];
+		for (int w = 0; w < nWords; ++w)
+			count += count(activeRows[w] & bitset[w], w);
+		return count;
+	}
+
+	/**
+	 *
+	 * @param column
+	 * @param rows bitset of rows.
+	 * @return weight of rows not covered yet, and in the bitset, that are
+	 * 	covered by the column.
+	 */
+	public int coverCount(int column, long[] rows) {
+		int count = 0;
+		long[] bitset = columns[column];
+		for (int w = 0; w < nWords; ++w)
+			count += count(activeRows[w] & bitset[w] & rows[w], w);
+		return count;
+	}
+
+	/**
+	 *
+	 * @return (column : weight of rows not covered yet that are only covered
+	 * 	by the column).
+	 */
+	public int[] leastCovered() {
+		int nColumns = columns.length;
+		int[] leastCovered = new int[nColumns];
+		long[] uniqueRows = uniqueRows();
+		for (int j = 0; j < nColumns; ++j)
+			for (int w = 0; w < nWords; ++w)
+				leastCovered[j] += count(columns[j][w] & uniqueRows[w], w);
+		return leastCovered;
+	}
+
+	/**
+	 *
+	 * @return bitset of rows not covered yet that are covered by exactly one
+	 * 	column.
+	 */
+	public long[] uniqueRows() {
+		long[] once = new long[nWords];		// covered by at least one column
+		long[] twice = new long[nWords];	// covered by at least two columns
+		for (long[] bitset : columns) {
+			for (int w = 0; w < nWords; ++w) {
+				twice[w] |= once[w] & bitset[w];
+				once[w] |= bitset[w];
+			}
+		}
+		for (int w = 0; w < nWords; ++w)
+			once[w] &= ~twice[w] & activeRows[w];
+		return once;
+	}
+
+	/**
+	 *
+	 * @param terms
+	 * @return bitset of rows, covered by any column, that are not covered by
+	 * 	any of the terms.
+	 */
+	public long[] rowsUncoveredBy(Collection<Term> terms) {
+		long[] rows = new long[nWords];
+		// rows covered by any column
+		for (long[] bitset : columns)
+			for (int w = 0; w < nWords; ++w)
+				rows[w] |= bitset[w];
+		for (Term term : terms) {
+			Integer column = columnIndex.get(term);
+			if (column != null) {
+				for (int w = 0; w < nWords; ++w)
+					rows[w] &= ~columns[column][w];
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 *
+	 * @param rows bitset of rows.
+	 * @return weight of the rows.
+	 */
+	public int weightOf(long[] rows) {
+		int weight = 0;
+		for (int w = 0; w < nWords; ++w)
+			weight += count(rows[w], w);
+		return weight;
+	}
+
+	/**
+	 *
+	 * @param word
+	 * @param w index of the word.
+	 * @return weight of the rows in a word.
+	 */
+	private int count(long word, int w) {
+		if (weights == null) return Long.bitCount(word);
+		int count = 0;
+		while (word != 0) {
+			count += weights[(w << 6) + Long.numberOfTrailingZeros(word)];
+			word &= word-1;
+		}
+		return count;
+	}
+
+	/**
+	 *
+	 * @return {@code true} if every row is covered.
+	 */
+	public boolean isEmpty() {
+		for (long word : activeRows)
+			if (word != 0) return false;
+		return true;
+	}
+
+	/**
+	 *
+	 * @return number of rows not covered yet.
+	 */
+	public int activeRowCount() {
+		int count = 0;
+		for (long word : activeRows)
+			count += Long.bitCount(word);
+		return count;
+	}
+
+	/**
+	 *
+	 * @param column
+	 * @return bitset of rows covered by the column. The returned array must
+	 * 	not be modified.
+	 */
+	public long[] getColumn(int column) { return columns[column]; }
+
+	/**
+	 *
+	 * @return copy of the bitset of rows not covered yet.
+	 */
+	public long[] getActiveRows() { return activeRows.clone(); }
+	
+	/**
+	 *
+	 * @param row
+	 * @return {@code true} if the row is not covered yet.
+	 */
+	public boolean isActive(int row) {
+		return (activeRows[row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 *
+	 * @param primeImplicant
+	 * @return column of the prime implicant, or -1 if it is not a column.
+	 */
+	public int columnOf(Term primeImplicant) {
+		Integer column = columnIndex.get(primeImplicant);
+		return (column == null) ? -1 : column;
+	}
+
+	public Term getPrimeImplicant(int column) { return primeImplicants.get(column); }
+	public int rows() { return nRows; }
+	public int words() { return nWords; }
+	public int columns() { return columns.length; }
+
+}
@@ -0,0 +1,405 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exact solution to the Unate Covering Problem, by branch-and-bound. Returns
+ * a minimum set of prime implicants that wholly covers the onset.
+ * </br>
+ * At every node of the search:
+ * <ul>
+ * <li>Essential columns (the only prime implicant covering a minterm) are
+ * 	selected.</li>
+ * <li>Dominated rows (a minterm covered by every prime implicant that covers
+ * 	another minterm) are removed.</li>
+ * <li>Dominated columns (a prime implicant covering a subset of the minterms
+ * 	covered by another prime implicant) are removed.</li>
+ * <li>The node is pruned if the selected prime implicants plus a lower bound,
+ * 	the size of a maximal independent set of minterms (no two minterms
+ * 	covered by the same prime implicant), is not smaller than the best cover
+ * 	found so far.</li>
+ * </ul>
+ * Subtrees near the root are searched in parallel. The search stops when the
+ * node budget runs out or its {@link Budget} is exhausted, and returns the 
+ * best cover found so far; {@link #isOptimal()} tells whether the cover was 
+ * proven minimal.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class ExactUCP {
+	private static final int PARALLEL_DEPTH = 4;	// max depth of forked subtrees
+
+	private final CoverMatrix coverMatrix;
+	private long nodeBudget = Long.MAX_VALUE;		// max number of nodes
+	private Budget budget = Budget.UNLIMITED;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	// compact problem, over the rows covered by any prime implicant
+	private int nRows;
+	private int nColumns;
+	private long[][] columnRows;					// (column : bitset of rows)
+	private long[][] rowColumns;					// (row : bitset of columns)
+
+	// search state
+	private final AtomicLong nodes = new AtomicLong();
+	private final AtomicReference<int[]> best = new AtomicReference<int[]>();
+	private volatile boolean isExhausted;
+	private boolean isOptimal;
+
+	public ExactUCP(TermList onset, TermSet primeImplicants) {
+		this.coverMatrix = new CoverMatrix(onset, primeImplicants);
+	}
+
+	/**
+	 *
+	 * @param nodeBudget max number of search nodes.
+	 */
+	public void setNodeBudget(long nodeBudget) {
+		if (nodeBudget < 1)
+			throw new IllegalArgumentException("node budget must be at least 1.");
+		this.nodeBudget = nodeBudget;
+	}
+
+	/**
+	 * The search stops early once the budget is exhausted, e.g. the budget
+	 * shared by every phase of an analysis.
+	 *
+	 * @param budget
+	 */
+	public void setBudget(Budget budget) { this.budget = budget; }
+	public Budget getBudget() { return budget; }
+
+	/**
+	 *
+	 * @param parallelism number of threads, at least 1.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1.");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns a minimum set of essential prime implicants, or the best set
+	 * found within the budget.
+	 *
+	 * @return
+	 */
+	public TermSet run() {
+		nodes.set(0);
+		isExhausted = false;
+		compact();
+		// greedy cover is the initial upper bound
+		best.set(greedyCover());
+		long[] rows = new long[words(nRows)];
+		for (int i = 0; i < nRows; ++i)
+			rows[i >>> 6] |= 1L << i;
+		long[] columns = new long[words(nColumns)];
+		for (int j = 0; j < nColumns; ++j)
+			columns[j >>> 6] |= 1L << j;
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new Node(rows, columns, new int[0], 0));
+		} finally {
+			pool.shutdown();
+		}
+		isOptimal = !isExhausted;
+		TermSet essentialPrimeImplicants = new TermSet();
+		for (int column : best.get())
+			essentialPrimeImplicants.add(coverMatrix.getPrimeImplicant(column));
+		return essentialPrimeImplicants;
+	}
+
+	/**
+	 *
+	 * @return {@code true} if the last run searched the whole tree, i.e. the
+	 * 	cover is minimal.
+	 */
+	public boolean isOptimal() { return isOptimal; }
+
+	/**
+	 *
+	 * @return number of search nodes of the last run.
+	 */
+	public long getNodes() { return nodes.get(); }
+
+	/**
+	 * Re-indexes the rows covered by any prime implicant, and transposes the
+	 * cover matrix.
+	 */
+	private void compact() {
+		long[] activeRows = coverMatrix.getActiveRows();
+		int[] rowIndex = new int[coverMatrix.rows()];
+		nRows = 0;
+		for (int i = 0; i < coverMatrix.rows(); ++i)
+			rowIndex[i] = ((activeRows[i >>> 6] & (1L << i)) != 0) ? nRows++ : -1;
+		nColumns = coverMatrix.columns();
+		columnRows = new long[nColumns][words(nRows)];
+		rowColumns = new long[nRows][words(nColumns)];
+		for (int j = 0; j < nColumns; ++j) {
+			long[] column = coverMatrix.getColumn(j);
+			for (int i = 0; i < coverMatrix.rows(); ++i) {
+				if (rowIndex[i] == -1 || (column[i >>> 6] & (1L << i)) == 0) continue;
+				int row = rowIndex[i];
+				columnRows[j][row >>> 6] |= 1L << row;
+				rowColumns[row][j >>> 6] |= 1L << j;
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return columns of a greedy (most covering) cover.
+	 */
+	private int[] greedyCover() {
+		long[] rows = new long[words(nRows)];
+		for (int i = 0; i < nRows; ++i)
+			rows[i >>> 6] |= 1L << i;
+		List<Integer> cover = new ArrayList<Integer>();
+		while (!isEmpty(rows)) {
+			int bestColumn = -1;
+			int bestCount = 0;
+			for (int j = 0; j < nColumns; ++j) {
+				int count = countAnd(columnRows[j], rows);
+				if (count > bestCount) {
+					bestCount = count;
+					bestColumn = j;
+				}
+			}
+			cover.add(bestColumn);
+			andNot(rows, columnRows[bestColumn]);
+		}
+		int[] columns = new int[cover.size()];
+		for (int i = 0; i < columns.length; ++i)
+			columns[i] = cover.get(i);
+		return columns;
+	}
+
+	/**
+	 *
+	 * @return {@code true} if the node budget has run out, or the budget is
+	 * 	exhausted.
+	 */
+	private boolean isBudgetExhausted() {
+		if (isExhausted) return true;
+		if (nodes.incrementAndGet() > nodeBudget || budget.isExhausted())
+			isExhausted = true;
+		return isExhausted;
+	}
+
+	/**
+	 * Replaces the best cover if the new cover is smaller.
+	 *
+	 * @param cover
+	 */
+	private void offer(int[] cover) {
+		int[] current;
+		do {
+			current = best.get();
+			if (cover.length >= current.length) return;
+		} while (!best.compareAndSet(current, cover));
+	}
+
+	/**
+	 * A node of the search tree: the rows not covered yet, the columns still
+	 * available, and the columns selected so far.
+	 */
+	private final class Node extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final long[] rows;
+		private final long[] columns;
+		private int[] selected;
+		private final int depth;
+
+		Node(long[] rows, long[] columns, int[] selected, int depth) {
+			this.rows = rows;
+			this.columns = columns;
+			this.selected = selected;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			search();
+		}
+
+		private void search() {
+			if (isBudgetExhausted()) return;
+			if (!reduce()) return;
+			if (isEmpty(rows)) {
+				offer(selected);
+				return;
+			}
+			if (selected.length+lowerBound() >= best.get().length) return;
+			// branch on the columns of the row with the fewest columns
+			int branchRow = -1;
+			int minCount = Integer.MAX_VALUE;
+			for (int i = nextSetBit(rows, 0); i >= 0; i = nextSetBit(rows, i+1)) {
+				int count = countAnd(rowColumns[i], columns);
+				if (count < minCount) {
+					minCount = count;
+					branchRow = i;
+				}
+			}
+			long[] excluded = columns.clone();
+			List<Node> children = new ArrayList<Node>();
+			long[] branchColumns = and(rowColumns[branchRow], columns);
+			for (int j = nextSetBit(branchColumns, 0); j >= 0;
+					j = nextSetBit(branchColumns, j+1)) {
+				long[] childRows = rows.clone();
+				andNot(childRows, columnRows[j]);
+				// siblings after this one exclude the column
+				excluded[j >>> 6] &= ~(1L << j);
+				long[] childColumns = excluded.clone();
+				Node child = new Node(childRows, childColumns, append(selected, j), depth+1);
+				if (depth < PARALLEL_DEPTH)
+					children.add(child);
+				else
+					child.search();
+			}
+			if (!children.isEmpty())
+				invokeAll(children);
+		}
+
+		/**
+		 * Selects essential columns, and removes dominated rows and columns,
+		 * until nothing changes.
+		 *
+		 * @return {@code false} if a row can no longer be covered.
+		 */
+		private boolean reduce() {
+			boolean isChanged = true;
+			while (isChanged) {
+				isChanged = false;
+				// essential columns
+				for (int i = nextSetBit(rows, 0); i >= 0; i = nextSetBit(rows, i+1)) {
+					long[] rowColumnSet = and(rowColumns[i], columns);
+					int count = count(rowColumnSet);
+					if (count == 0) return false;
+					if (count == 1) {
+						int j = nextSetBit(rowColumnSet, 0);
+						selected = append(selected, j);
+						andNot(rows, columnRows[j]);
+						columns[j >>> 6] &= ~(1L << j);
+						isChanged = true;
+					}
+				}
+				if (isEmpty(rows)) return true;
+				// dominated rows: covering row i also covers row k
+				for (int i = nextSetBit(rows, 0); i >= 0; i = nextSetBit(rows, i+1)) {
+					long[] iColumns = and(rowColumns[i], columns);
+					for (int k = nextSetBit(rows, 0); k >= 0; k = nextSetBit(rows, k+1)) {
+						if (k == i) continue;
+						long[] kColumns = and(rowColumns[k], columns);
+						if (isSubset(iColumns, kColumns) &&
+								(!isSubset(kColumns, iColumns) || k > i)) {
+							rows[k >>> 6] &= ~(1L << k);
+							isChanged = true;
+						}
+					}
+				}
+				// dominated columns: column j covers a subset of column k
+				for (int j = nextSetBit(columns, 0); j >= 0; j = nextSetBit(columns, j+1)) {
+					long[] jRows = and(columnRows[j], rows);
+					boolean isDominated = isEmpty(jRows);
+					for (int k = nextSetBit(columns, 0); k >= 0 && !isDominated;
+							k = nextSetBit(columns, k+1)) {
+						if (k == j) continue;
+						long[] kRows = and(columnRows[k], rows);
+						isDominated = isSubset(jRows, kRows) &&
+								(!isSubset(kRows, jRows) || j > k);
+					}
+					if (isDominated) {
+						columns[j >>> 6] &= ~(1L << j);
+						isChanged = true;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 *
+		 * @return size of a maximal set of rows that share no column.
+		 */
+		private int lowerBound() {
+			long[] usedColumns = new long[columns.length];
+			int bound = 0;
+			for (int i = nextSetBit(rows, 0); i >= 0; i = nextSetBit(rows, i+1)) {
+				long[] rowColumnSet = and(rowColumns[i], columns);
+				if (countAnd(rowColumnSet, usedColumns) == 0) {
+					++bound;
+					for (int w = 0; w < usedColumns.length; ++w)
+						usedColumns[w] |= rowColumnSet[w];
+				}
+			}
+			return bound;
+		}
+	}
+
+	// bitset utilities
+
+	private static int words(int nBits) { return (nBits+63) >>> 6; }
+
+	private static int[] append(int[] array, int value) {
+		int[] newArray = java.util.Arrays.copyOf(array, array.length+1);
+		newArray[array.length] = value;
+		return newArray;
+	}
+
+	private static long[] and(long[] a, long[] b) {
+		long[] c = new long[a.length];
+		for (int w = 0; w < a.length; ++w)
+			c[w] = a[w] & b[w];
+		return c;
+	}
+
+	private static void andNot(long[] a, long[] b) {
+		for (int w = 0; w < a.length; ++w)
+			a[w] &= ~b[w];
+	}
+
+	private static int count(long[] a) {
+		int count = 0;
+		for (long word : a)
+			count += Long.bitCount(word);
+		return count;
+	}
+
+	private static int countAnd(long[] a, long[] b) {
+		int count = 0;
+		for (int w = 0; w < a.length; ++w)
+			count += Long.bitCount(a[w] & b[w]);
+		return count;
+	}
+
+	private static boolean isSubset(long[] a, long[] b) {
+		for (int w = 0; w < a.length; ++w)
+			if ((a[w] & ~b[w]) != 0) return false;
+		return true;
+	}
+
+	private static boolean isEmpty(long[] a) {
+		for (long word : a)
+			if (word != 0) return false;
+		return true;
+	}
+
+	private static int nextSetBit(long[] a, int from) {
+		int w = from >>> 6;
+		if (w >= a.length) return -1;
+		long word = a[w] & (-1L << from);
+		while (true) {
+			if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+			if (++w == a.length) return -1;
+			word = a[w];
+		}
+	}
+
+}
@@ -1,10 +1,11 @@
 package core;
 
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 
+import heuristic.HeuristicContext;
+
 /**
  * Abstract class for Implicant Expansion.
  * 
@@ -14,34 +15,109 @@ import java.util.Queue;
 public abstract class IE {
 	protected final TermList offset;
 	protected final TermSet implicants;
+	protected final LiteralIndex offsetIndex;	// bitmap index of the offset
+	protected final HeuristicContext context;	// dataset-level heuristics
+	private final PhaseCounters counters = new PhaseCounters();
+	private Budget budget = Budget.UNLIMITED;
+	private boolean isStopped;					// last run stopped by the budget
+	private int frontierBound = Integer.MAX_VALUE;	// permutations on the heap
 	
 	public IE(TermList offset, TermSet implicants) {
-		this.offset = offset;
+		this(new HeuristicContext(new TermList(), offset), implicants);
+	}
+	
+	/**
+	 * 
+	 * @param context heuristics of the analysis, shared with the other phases.
+	 * @param implicants
+	 */
+	public IE(HeuristicContext context, TermSet implicants) {
+		this.context = context;
+		this.offset = context.getOffset();
 		this.implicants = implicants;
+		this.offsetIndex = context.getOffsetIndex();
+	}
+	
+	public HeuristicContext getContext() { return context; }
+	
+	/**
+	 * 
+	 * @return counters of all expansions so far.
+	 */
+	public PhaseCounters getCounters() { return counters; }
+	
+	/**
+	 * The expansion stops early once the budget is exhausted, see 
+	 * {@link #getPrimeImplicants()}.
+	 * 
+	 * @param budget
+	 */
+	public void setBudget(Budget budget) { this.budget = budget; }
+	public Budget getBudget() { return budget; }
+	
+	/**
+	 * Bounds the implicant permutations kept on the heap. Permutations beyond
+	 * the bound are spilled to a temporary file, see {@link SpillingQueue}.
+	 * By default the queue is unbounded.
+	 * 
+	 * @param frontierBound permutations, at least 2.
+	 */
+	public void setFrontierBound(int frontierBound) {
+		if (frontierBound < 2)
+			throw new IllegalArgumentException("frontier bound must be at least 2.");
+		this.frontierBound = frontierBound;
 	}
 	
+	public int getFrontierBound() { return frontierBound; }
+	
 	/**
-	 * Run the Implicant Expansion.
+	 * 
+	 * @return {@code false} if the last run was stopped by the budget.
+	 */
+	public boolean isComplete() { return !isStopped; }
+	
+	/**
+	 * Run the Implicant Expansion. Every run is recorded as a 
+	 * {@link PhaseEvent}, and counted in {@link #getCounters()}.
 	 * 
 	 * @return prime implicants.
 	 */
 	public TermSet run() {
-		return getPrimeImplicants();
+		PhaseRun phaseRun = counters.begin("IE");
+		TermSet primeImplicants = getPrimeImplicants();
+		phaseRun.commit(this, primeImplicants.size());
+		return primeImplicants;
 	}
 	
 	/**
 	 * Returns all prime implicants found.
+	 * </br>
+	 * If the expansion is stopped by its {@link Budget}, the implicants not
+	 * expanded yet are returned with the prime implicants. They are not prime,
+	 * but they do not intersect the offset, and together they still cover
+	 * every minterm the original implicants cover.
 	 * 
 	 * @return
 	 */
 	protected TermSet getPrimeImplicants() {
+		isStopped = false;
 		TermSet primeImplicants = new TermSet();
-		Queue<Term> implicantPermutations = new LinkedList<Term>();
-		// initial permutations are the original implicants
-		implicantPermutations.addAll(implicants);
-		while (!implicantPermutations.isEmpty())
-			getPrimeImplicantsHelper(primeImplicants, implicantPermutations,
-					implicantPermutations.poll());
+		try (SpillingQueue<Term> implicantPermutations = new SpillingQueue<Term>(
+				SpillingQueue.termCodec(context.getSchema()), frontierBound)) {
+			// initial permutations are the original implicants
+			implicantPermutations.addAll(implicants);
+			counters.frontier(implicantPermutations.size());
+			while (!implicantPermutations.isEmpty()) {
+				if (budget.isExhausted()) {
+					isStopped = true;
+					primeImplicants.addAll(implicantPermutations);
+					break;
+				}
+				getPrimeImplicantsHelper(primeImplicants, implicantPermutations,
+						implicantPermutations.poll());
+				counters.frontier(implicantPermutations.size());
+			}
+		}
 		return primeImplicants;
 	}
 	
@@ -53,16 +129,19 @@ public abstract class IE {
 	 */
 	protected void getPrimeImplicantsHelper(TermSet primeImplicants,
 			Queue<Term> implicantPermutations, Term currentImplicant) {
+		counters.iteration();
 		// stop if there are no literal candidates to remove, i.e.
 		// the current implicant can not be "expanded" further
 		LiteralSet literalCandidates = getLiteralCandidates(currentImplicant);
 		if (literalCandidates.isEmpty()) {
-			primeImplicants.add(currentImplicant);
+			if (!primeImplicants.add(currentImplicant))
+				counters.duplicatePruned();
 			return;
 		}
 		for (Literal literal : literalCandidates) {
 			Term newImplicant = new Term(currentImplicant);
 			newImplicant.remove(literal);
+			counters.termGenerated();
 			implicantPermutations.add(newImplicant);
 		}
 	}
@@ -86,14 +165,8 @@ public abstract class IE {
 	 * @return
 	 */
 	protected boolean isPrimeImplicant(Term implicant) {
-		boolean intersects = false;
-		for (Term minterm : offset) {
-			if (implicant.covers(minterm)) {
-				intersects = true;
-				break;
-			}
-		}
-		return !intersects;
+		counters.coverChecks(offsetIndex.rows());
+		return !offsetIndex.intersects(implicant);
 	}
 
 }
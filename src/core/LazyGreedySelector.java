@@ -0,0 +1,91 @@
+package core;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Lazy greedy selection of prime implicants from a {@link CoverMatrix}. The 
+ * next prime implicant is the one covering the most minterms not covered yet.
+ * If there is a tie, the prime implicant covering the most minterms that are 
+ * not covered by other prime implicants is preferred.
+ * </br>
+ * Prime implicants are kept in a max-heap by their scores. Scores only 
+ * decrease as minterms get covered, so a stale score is an upper bound and is
+ * only re-evaluated when it reaches the top of the heap.
+ * 
+ * @author lvl2pillow
+ *
+ */
+public class LazyGreedySelector {
+	private final CoverMatrix coverMatrix;
+	private final long[] uniqueRows;		// rows covered by exactly one column
+	private final PriorityQueue<Score> scores;
+	
+	/**
+	 * 
+	 * @param coverMatrix
+	 */
+	public LazyGreedySelector(CoverMatrix coverMatrix) {
+		this.coverMatrix = coverMatrix;
+		this.uniqueRows = coverMatrix.uniqueRows();
+		this.scores = new PriorityQueue<Score>(Math.max(1, coverMatrix.columns()), 
+				Comparator.comparingInt((Score score) -> -score.mostCovering)
+				.thenComparingInt(score -> -score.leastCovered)
+				.thenComparingInt(score -> score.column));
+		for (int j = 0; j < coverMatrix.columns(); ++j) {
+			Score score = new Score(j);
+			if (score.mostCovering > 0)
+				scores.add(score);
+		}
+	}
+	
+	/**
+	 * Returns the column of the next prime implicant. The cover matrix is not
+	 * modified.
+	 * 
+	 * @return column of the best prime implicant, or -1 if no prime implicant 
+	 * 	covers any minterm not covered yet.
+	 */
+	public int next() {
+		while (!scores.isEmpty()) {
+			Score top = scores.poll();
+			int mostCovering = coverMatrix.coverCount(top.column);
+			// covers nothing new, now or later
+			if (mostCovering == 0) continue;
+			int leastCovered = leastCovered(top.column);
+			// up to date score is at least the bound of any other score
+			if (mostCovering == top.mostCovering && leastCovered == top.leastCovered)
+				return top.column;
+			top.mostCovering = mostCovering;
+			top.leastCovered = leastCovered;
+			scores.add(top);
+		}
+		return -1;
+	}
+	
+	/**
+	 * 
+	 * @param column
+	 * @return number of minterms not covered yet that are only covered by the
+	 * 	column.
+	 */
+	private int leastCovered(int column) {
+		return coverMatrix.coverCount(column, uniqueRows);
+	}
+	
+	/**
+	 * Possibly stale score of a prime implicant.
+	 */
+	private final class Score {
+		private final int column;
+		private int mostCovering;
+		private int leastCovered;
+		
+		Score(int column) {
+			this.column = column;
+			this.mostCovering = coverMatrix.coverCount(column);
+			this.leastCovered = leastCovered(column);
+		}
+	}
+	
+}
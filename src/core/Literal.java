@@ -60,7 +60,17 @@ public class Literal extends Variable {
 	@Override
 	public String toString() { return isNormal ? name : "~"+name; }
 	
-	public boolean isNormal() { return isNormal ? isNormal : !isNormal; }
+	public boolean isNormal() { return isNormal; }
 	public boolean isCompliment() {return !isNormal(); }
+	
+	/**
+	 * 
+	 * @return dense literal code, i.e. 2*index for the compliment form and
+	 * 	2*index+1 for the normal form.
+	 */
+	public int getCode() { return getCode(index, isNormal); }
+	public static int getCode(int index, boolean isNormal) { 
+		return (index << 1) | (isNormal ? 1 : 0); 
+	}
 
 }
@@ -0,0 +1,122 @@
+package core;
+
+/**
+ * A vertical bitmap index over a data set. Every literal keeps a bitset of the
+ * rows (minterms) containing the literal, so the rows covered by a term are 
+ * the AND of the bitsets of the term's literals.
+ * </br>
+ * <b>Note:</b> Unlike {@link Term#covers(Term)}, an empty term covers every
+ * row, i.e. an empty term intersects any non-empty data set.
+ * 
+ * @author lvl2pillow
+ *
+ */
+public class LiteralIndex {
+	private final int nRows;			// number of rows in the data set
+	private final int nWords;			// number of 64-bit words per bitset
+	private final long[][] bitsets;		// (literal code : bitset of rows)
+	private final Literal[] literals;	// (literal code : literal)
+	
+	/**
+	 * 
+	 * @param dataSet
+	 */
+	public LiteralIndex(TermList dataSet) {
+		this.nRows = dataSet.size();
+		this.nWords = (nRows+63) >>> 6;
+		// find the number of literal codes
+		int nCodes = 0;
+		for (Term minterm : dataSet)
+			for (Literal literal : minterm)
+				nCodes = Math.max(nCodes, literal.getCode()+1);
+		this.bitsets = new long[nCodes][];
+		this.literals = new Literal[nCodes];
+		for (int row = 0; row < nRows; ++row) {
+			for (Literal literal : dataSet.get(row)) {
+				int code = literal.getCode();
+				if (bitsets[code] == null) {
+					bitsets[code] = new long[nWords];
+					literals[code] = literal;
+				}
+				bitsets[code][row >>> 6] |= 1L << row;
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param term
+	 * @return {@code true} if the term covers any row of the data set, 
+	 * 	else {@code false}.
+	 */
+	public boolean intersects(Term term) {
+		int size = term.size();
+		// a literal that is in no row
+		for (int i = 0; i < size; ++i)
+			if (bitset(term.get(i).getCode()) == null) return false;
+		for (int w = 0; w < nWords; ++w) {
+			long word = lastWordMask(w);
+			for (int i = 0; i < size && word != 0; ++i)
+				word &= bitsets[term.get(i).getCode()][w];
+			if (word != 0) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 
+	 * @param term
+	 * @return bitset of the rows covered by the term.
+	 */
+	public long[] coveredRows(Term term) {
+		long[] rows = new long[nWords];
+		coveredRows(term, rows);
+		return rows;
+	}
+	
+	/**
+	 * Writes the bitset of rows covered by the term into a specified array.
+	 * 
+	 * @param term
+	 * @param rows array of at least {@link #words()} elements.
+	 */
+	public void coveredRows(Term term, long[] rows) {
+		for (int w = 0; w < nWords; ++w)
+			rows[w] = lastWordMask(w);
+		for (Literal literal : term) {
+			long[] bitset = bitset(literal.getCode());
+			for (int w = 0; w < nWords; ++w)
+				rows[w] = (bitset == null) ? 0L : rows[w] & bitset[w];
+		}
+	}
+	
+	/**
+	 * 
+	 * @param code literal code.
+	 * @return bitset of the rows containing the literal, or {@code null} if no
+	 * 	row contains the literal. The returned array must not be modified.
+	 */
+	public long[] bitset(int code) {
+		return (code < bitsets.length) ? bitsets[code] : null;
+	}
+	
+	/**
+	 * 
+	 * @param code literal code.
+	 * @return the literal from the data set, or {@code null} if no row 
+	 * 	contains the literal.
+	 */
+	public Literal literal(int code) {
+		return (code < literals.length) ? literals[code] : null;
+	}
+	
+	private long lastWordMask(int w) {
+		int nBits = nRows - (w << 6);
+		return (nBits >= 64) ? -1L : (1L << nBits) - 1;
+	}
+	
+	public int rows() { return nRows; }
+	public int words() { return nWords; }
+	public int codes() { return bitsets.length; }
+	
+}
@@ -1,10 +1,11 @@
 package core;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 /**
  * A {@link HashSet} of {@code Literal} elements.
@@ -25,24 +26,26 @@ public class LiteralSet extends HashSet<Literal> {
 	}
 	
 	/**
+	 * Removes every compliment literal whose normal literal is also in the set.
 	 * 
-	 * @return
+	 * @return removed literals.
 	 */
 	public Set<Literal> removeComplimentIfNormalExists() {
-		Set<Literal> normalLiterals = new HashSet<Literal>();
+		// variable indexes of normal literals
+		BitSet normalLiterals = new BitSet();
 		for (Literal literal : this) {
 			if (literal.isNormal())
-				normalLiterals.add(literal);
+				normalLiterals.set(literal.getIndex());
 		}
 		// remove compliment literal if normal literal exists in the set
 		Set<Literal> removedLiterals = new HashSet<Literal>();
 		Iterator<Literal> i = this.iterator();
 		while (i.hasNext()) {
 			Literal literal = i.next();
-			if (literal.isCompliment() && 
-					normalLiterals.contains(new Literal(literal.getIndex(), true)))
+			if (literal.isCompliment() && normalLiterals.get(literal.getIndex())) {
 				removedLiterals.add(literal);
 				i.remove();
+			}
 		}
 		return removedLiterals;
 	}
@@ -66,7 +69,16 @@ public class LiteralSet extends HashSet<Literal> {
 	 * @return a random literal from the set.
 	 */
 	public Literal randomLiteral() {
-		int n = new Random().nextInt(this.size());
+		return randomLiteral(new SplittableRandom());
+	}
+	
+	/**
+	 * 
+	 * @param random source of randomness.
+	 * @return a random literal from the set.
+	 */
+	public Literal randomLiteral(SplittableRandom random) {
+		int n = random.nextInt(this.size());
 		int i = 0;
 		for (Literal literal : this) {
 			if (i == n) return literal;
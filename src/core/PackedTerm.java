@@ -0,0 +1,223 @@
+package core;
+
+import java.util.Arrays;
+
+/**
+ * A bit-packed representation of a {@link Term}. Every variable occupies one
+ * bit in the <i>care mask</i> (whether the variable is part of the term) and
+ * one bit in the <i>value mask</i> (whether the variable is in normal form).
+ * </br>
+ * Checks such as {@code covers} and {@code intersects} are a few AND/compare
+ * operations per 64 variables.
+ * </br>
+ * A packed term is immutable, so it can be shared between threads and used
+ * as a key.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class PackedTerm {
+	private static final long[] EMPTY = new long[0];
+
+	private final long[] care;		// variable is part of the term
+	private final long[] value;		// variable is in normal form
+
+	public PackedTerm() {
+		this(EMPTY, EMPTY);
+	}
+
+	private PackedTerm(long[] care, long[] value) {
+		this.care = care;
+		this.value = value;
+	}
+
+	/**
+	 *
+	 * @param term
+	 * @return packed representation of the term.
+	 */
+	public static PackedTerm of(Iterable<Literal> term) {
+		int nWords = 0;
+		for (Literal literal : term)
+			nWords = Math.max(nWords, (literal.getIndex() >>> 6)+1);
+		long[] care = new long[nWords];
+		long[] value = new long[nWords];
+		for (Literal literal : term)
+			set(care, value, literal.getIndex(), literal.isNormal());
+		return new PackedTerm(care, value);
+	}
+
+	/**
+	 * A literal replaces any existing literal of the same variable.
+	 *
+	 * @param index variable index.
+	 * @param isNormal
+	 * @return packed term with the literal added.
+	 */
+	public PackedTerm with(int index, boolean isNormal) {
+		int nWords = Math.max(care.length, (index >>> 6)+1);
+		long[] newCare = Arrays.copyOf(care, nWords);
+		long[] newValue = Arrays.copyOf(value, nWords);
+		set(newCare, newValue, index, isNormal);
+		return new PackedTerm(newCare, newValue);
+	}
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @return packed term without the variable.
+	 */
+	public PackedTerm without(int index) {
+		if (!contains(index)) return this;
+		int word = index >>> 6;
+		long bit = 1L << index;
+		long[] newCare = care.clone();
+		long[] newValue = value.clone();
+		newCare[word] &= ~bit;
+		newValue[word] &= ~bit;
+		return new PackedTerm(newCare, newValue);
+	}
+
+	private static void set(long[] care, long[] value, int index, boolean isNormal) {
+		int word = index >>> 6;
+		long bit = 1L << index;
+		care[word] |= bit;
+		if (isNormal)
+			value[word] |= bit;
+		else
+			value[word] &= ~bit;
+	}
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @return {@code true} if the variable is part of the term.
+	 */
+	public boolean contains(int index) {
+		int word = index >>> 6;
+		return word < care.length && (care[word] & (1L << index)) != 0;
+	}
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @param isNormal
+	 * @return {@code true} if the literal is part of the term.
+	 */
+	public boolean contains(int index, boolean isNormal) {
+		int word = index >>> 6;
+		if (word >= care.length) return false;
+		long bit = 1L << index;
+		return (care[word] & bit) != 0 && ((value[word] & bit) != 0) == isNormal;
+	}
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @param isNormal
+	 * @return {@code true} if the alternate form of the literal is part of the
+	 * 	term.
+	 */
+	public boolean conflicts(int index, boolean isNormal) {
+		return contains(index, !isNormal);
+	}
+
+	/**
+	 *
+	 * @return {@code true} if this term covers another term,
+	 * 	else {@code false}. An empty term covers nothing.
+	 */
+	public boolean covers(PackedTerm coveredTerm) {
+		boolean isEmpty = true;
+		long[] otherCare = coveredTerm.care;
+		long[] otherValue = coveredTerm.value;
+		for (int i = 0; i < care.length; ++i) {
+			long c = care[i];
+			if (c == 0) continue;
+			isEmpty = false;
+			if (i >= otherCare.length) return false;
+			// every variable of this term must be in the covered term ...
+			if ((c & ~otherCare[i]) != 0) return false;
+			// ... with the same form
+			if (((value[i] ^ otherValue[i]) & c) != 0) return false;
+		}
+		return !isEmpty;
+	}
+
+	/**
+	 *
+	 * @return {@code true} if this term intersects another term,
+	 * 	else {@code false}. An empty term intersects nothing.
+	 */
+	public boolean intersects(PackedTerm coveredTerm) {
+		return covers(coveredTerm);
+	}
+
+	/**
+	 *
+	 * @return number of literals in the term.
+	 */
+	public int size() {
+		int size = 0;
+		for (long c : care)
+			size += Long.bitCount(c);
+		return size;
+	}
+
+	public boolean isEmpty() {
+		for (long c : care)
+			if (c != 0) return false;
+		return true;
+	}
+
+	/**
+	 *
+	 * @return number of 64-bit words used by the masks.
+	 */
+	public int words() { return care.length; }
+	public long careWord(int i) { return i < care.length ? care[i] : 0L; }
+	public long valueWord(int i) { return i < value.length ? value[i] : 0L; }
+
+	/**
+	 * Number of words excluding trailing empty words, so that equal terms
+	 * are equal regardless of capacity.
+	 */
+	private int usedWords() {
+		int n = care.length;
+		while (n > 0 && care[n-1] == 0) --n;
+		return n;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 1;
+		int n = usedWords();
+		for (int i = 0; i < n; ++i) {
+			result = 31 * result + Long.hashCode(care[i]);
+			result = 31 * result + Long.hashCode(value[i] & care[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PackedTerm other = (PackedTerm) obj;
+		int n = usedWords();
+		if (n != other.usedWords())
+			return false;
+		for (int i = 0; i < n; ++i) {
+			if (care[i] != other.care[i])
+				return false;
+			if (((value[i] ^ other.value[i]) & care[i]) != 0)
+				return false;
+		}
+		return true;
+	}
+
+}
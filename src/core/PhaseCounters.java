@@ -0,0 +1,126 @@
+package core;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Always-on counters of a phase (CDS, IE or UCP). Counters accumulate over
+ * every run of the phase, and can be read during or after a run. Peaks are
+ * kept per queue, and are those of the current or last run.
+ * </br>
+ * Counters are {@link LongAdder}s, so threads of a parallel search do not
+ * contend on them. Hot loops count in bulk, e.g. a check of a term against
+ * the whole offset counts once with the size of the offset.
+ *
+ * @author lvl2pillow
+ *
+ */
+public final class PhaseCounters {
+	private final LongAdder termsGenerated = new LongAdder();	// new term permutations
+	private final LongAdder duplicatesPruned = new LongAdder();	// terms already visited
+	private final LongAdder coverChecks = new LongAdder();		// term/minterm covers tests
+	private final LongAdder iterations = new LongAdder();		// steps of the main loop
+	// peaks of the current run
+	private final LongAccumulator peakFrontier = new LongAccumulator(Long::max, 0);
+	private final LongAccumulator peakOnsetPermutations = new LongAccumulator(Long::max, 0);
+	private final LongAccumulator peakPendingTasks = new LongAccumulator(Long::max, 0);
+	// Flight Recorder is not in every Java 8 runtime, nor in runtime images
+	// without the jdk.jfr module
+	private static final boolean HASJFR = hasFlightRecorder();
+
+	void termGenerated() { termsGenerated.increment(); }
+	void duplicatePruned() { duplicatesPruned.increment(); }
+	void coverChecks(long n) { coverChecks.add(n); }
+	void iteration() { iterations.increment(); }
+	void iterations(long n) { iterations.add(n); }
+	void frontier(long size) { peakFrontier.accumulate(size); }
+	void onsetPermutations(long size) { peakOnsetPermutations.accumulate(size); }
+	void pendingTasks(long n) { peakPendingTasks.accumulate(n); }
+
+	/**
+	 * Begins a run of the phase, and resets the peaks. The run is recorded as
+	 * a {@link PhaseEvent} once Flight Recorder is initialized. Loading an 
+	 * event class sets up Flight Recorder, which takes hundreds of 
+	 * milliseconds, so no event class is loaded before.
+	 *
+	 * @param phase
+	 * @return run to commit when the phase ends.
+	 */
+	PhaseRun begin(String phase) {
+		peakFrontier.reset();
+		peakOnsetPermutations.reset();
+		peakPendingTasks.reset();
+		if (!HASJFR || !FlightRecorder.isInitialized()) return PhaseRun.NONE;
+		return PhaseEvent.begin(phase, this);
+	}
+
+	private static boolean hasFlightRecorder() {
+		try {
+			Class.forName("jdk.jfr.FlightRecorder", false, 
+					PhaseCounters.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 *
+	 * @return number of term permutations generated so far, including pruned
+	 * 	duplicates.
+	 */
+	public long getTermsGenerated() { return termsGenerated.sum(); }
+
+	/**
+	 *
+	 * @return number of term permutations pruned so far, because they were
+	 * 	already visited.
+	 */
+	public long getDuplicatesPruned() { return duplicatesPruned.sum(); }
+
+	/**
+	 *
+	 * @return number of tests of whether a term covers a minterm so far.
+	 */
+	public long getCoverChecks() { return coverChecks.sum(); }
+
+	/**
+	 *
+	 * @return number of steps of the main loop of the phase so far, e.g.
+	 * 	onset permutations of CDS or selections of UCP.
+	 */
+	public long getIterations() { return iterations.sum(); }
+
+	/**
+	 *
+	 * @return largest number of term permutations in the queue of the search,
+	 * 	in the current or last run.
+	 */
+	public long getPeakFrontier() { return peakFrontier.get(); }
+
+	/**
+	 *
+	 * @return largest number of onset permutations in the queue of CDS, in the
+	 * 	current or last run.
+	 */
+	public long getPeakOnsetPermutations() { return peakOnsetPermutations.get(); }
+
+	/**
+	 *
+	 * @return largest number of pending tasks of a parallel search, in the 
+	 * 	current or last run.
+	 */
+	public long getPeakPendingTasks() { return peakPendingTasks.get(); }
+
+	@Override
+	public String toString() {
+		return "terms generated: "+getTermsGenerated()+", duplicates pruned: "+
+				getDuplicatesPruned()+", cover checks: "+getCoverChecks()+
+				", iterations: "+getIterations()+", peak frontier: "+getPeakFrontier()+
+				", peak onset permutations: "+getPeakOnsetPermutations()+
+				", peak pending tasks: "+getPeakPendingTasks();
+	}
+
+}
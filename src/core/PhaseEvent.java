@@ -0,0 +1,107 @@
+package core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of one run of a phase (CDS, IE or UCP). The
+ * event duration is the wall time of the run, the counts are the deltas of
+ * the {@link PhaseCounters} over the run, and the peaks are those of the run.
+ * </br>
+ * Counters are only read if the event is enabled, so a run without a
+ * recording costs a couple of checks. To record, e.g.
+ * <code>java -XX:StartFlightRecording:filename=analysis.jfr ...</code>, and
+ * look for <code>causality.Phase</code> events.
+ *
+ * @author lvl2pillow
+ *
+ */
+@Name("causality.Phase")
+@Label("Phase")
+@Category("Causality Analysis")
+@Description("One run of CDS, IE or UCP")
+final class PhaseEvent extends Event implements PhaseRun {
+	// not recorded
+	private transient PhaseCounters counters;
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Results")
+	@Description("Implicants, prime implicants or essential prime implicants")
+	int results;
+
+	@Label("Peak Frontier")
+	@Description("Term permutations in the queue of the search")
+	long peakFrontier;
+
+	@Label("Peak Onset Permutations")
+	long peakOnsetPermutations;
+
+	@Label("Peak Pending Tasks")
+	@Description("Forked tasks of a parallel search")
+	long peakPendingTasks;
+
+	@Label("Terms Generated")
+	long termsGenerated;
+
+	@Label("Duplicates Pruned")
+	long duplicatesPruned;
+
+	@Label("Cover Checks")
+	long coverChecks;
+
+	@Label("Iterations")
+	long iterations;
+
+	/**
+	 * Starts the event of a run.
+	 *
+	 * @param phase
+	 * @param counters counters of the phase, before the run.
+	 * @return started event.
+	 */
+	static PhaseEvent begin(String phase, PhaseCounters counters) {
+		PhaseEvent event = new PhaseEvent();
+		event.counters = counters;
+		if (event.isEnabled()) {
+			event.phase = phase;
+			event.termsGenerated = -counters.getTermsGenerated();
+			event.duplicatesPruned = -counters.getDuplicatesPruned();
+			event.coverChecks = -counters.getCoverChecks();
+			event.iterations = -counters.getIterations();
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event of a run, and commits it if it is recorded.
+	 *
+	 * @param owner the running phase.
+	 * @param nResults
+	 */
+	@Override
+	public void commit(Object owner, int nResults) {
+		end();
+		// not enabled when the run began
+		if (!shouldCommit() || phase == null) return;
+		algorithm = owner.getClass().getName();
+		results = nResults;
+		peakFrontier = counters.getPeakFrontier();
+		peakOnsetPermutations = counters.getPeakOnsetPermutations();
+		peakPendingTasks = counters.getPeakPendingTasks();
+		termsGenerated += counters.getTermsGenerated();
+		duplicatesPruned += counters.getDuplicatesPruned();
+		coverChecks += counters.getCoverChecks();
+		iterations += counters.getIterations();
+		commit();
+	}
+
+}
@@ -0,0 +1,23 @@
+package core;
+
+/**
+ * One run of a phase (CDS, IE or UCP), begun by 
+ * {@link PhaseCounters#begin(String)}. A run is a {@link PhaseEvent} while 
+ * Flight Recorder is on, and {@link #NONE} otherwise.
+ *
+ * @author lvl2pillow
+ *
+ */
+interface PhaseRun {
+	// run that is not recorded
+	PhaseRun NONE = (owner, nResults) -> {};
+
+	/**
+	 * Ends the run, and records it if a recording is on.
+	 *
+	 * @param owner the running phase.
+	 * @param nResults
+	 */
+	void commit(Object owner, int nResults);
+
+}
@@ -0,0 +1,169 @@
+package core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The variables of a data set, i.e. the column names of the input file
+ * excluding the outcome. Variable names are kept once here instead of in
+ * every {@link Literal}.
+ * </br>
+ * A schema owns the canonical {@link Variable} of every variable and exactly
+ * two canonical {@link Literal} instances per variable, by literal code, so
+ * the pipeline resolves literals by array lookup instead of allocating them.
+ * Canonical literals are equal to, and interchangeable with, any other
+ * literal of the same index and form.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class Schema {
+	private final String[] names;					// (variable index : name)
+	private final Map<String, Integer> indexes;		// (name : variable index)
+	private final Variable[] variables;				// (variable index : variable)
+	private final Literal[] literals;				// (literal code : literal)
+
+	/**
+	 *
+	 * @param names variable names, which must be unique.
+	 */
+	public Schema(List<String> names) {
+		this.names = names.toArray(new String[names.size()]);
+		this.indexes = new HashMap<String, Integer>();
+		for (int i = 0; i < this.names.length; ++i) {
+			if (indexes.put(this.names[i], i) != null)
+				throw new IllegalArgumentException("variable names must be unique: "+this.names[i]);
+		}
+		this.variables = new Variable[this.names.length];
+		this.literals = new Literal[this.names.length << 1];
+		for (int i = 0; i < this.names.length; ++i) {
+			variables[i] = new Variable(i, this.names[i]);
+			literals[Literal.getCode(i, true)] = new Literal(i, this.names[i], true);
+			literals[Literal.getCode(i, false)] = new Literal(i, this.names[i], false);
+		}
+	}
+
+	/**
+	 *
+	 * @param nVariables
+	 * @return schema with default variable names, i.e. the variable indexes.
+	 */
+	public static Schema of(int nVariables) {
+		String[] names = new String[nVariables];
+		for (int i = 0; i < nVariables; ++i)
+			names[i] = Integer.toString(i);
+		return new Schema(Arrays.asList(names));
+	}
+
+	/**
+	 * Variables missing from the minterm have default names.
+	 *
+	 * @param minterm
+	 * @return schema with the variable names of the minterm's literals.
+	 */
+	public static Schema of(Term minterm) {
+		int nVariables = 0;
+		for (Literal literal : minterm)
+			nVariables = Math.max(nVariables, literal.getIndex()+1);
+		String[] names = new String[nVariables];
+		for (int i = 0; i < nVariables; ++i)
+			names[i] = Integer.toString(i);
+		for (Literal literal : minterm)
+			names[literal.getIndex()] = literal.getName();
+		return new Schema(Arrays.asList(names));
+	}
+
+	/**
+	 *
+	 * @param onset
+	 * @param offset
+	 * @return schema with the variable names of the first minterm of the
+	 * 	onset, or else of the offset.
+	 */
+	public static Schema of(TermList onset, TermList offset) {
+		if (!onset.isEmpty()) return of(onset.get(0));
+		if (!offset.isEmpty()) return of(offset.get(0));
+		return of(0);
+	}
+
+	/**
+	 * Derives the schema of a data set once and interns the onset and offset,
+	 * so both share the canonical literals of the schema.
+	 *
+	 * @param onset
+	 * @param offset
+	 * @return schema of the data set.
+	 */
+	public static Schema interned(TermList onset, TermList offset) {
+		Schema schema = of(onset, offset);
+		schema.intern(onset);
+		schema.intern(offset);
+		return schema;
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return variable index, or -1 if there is no such variable.
+	 */
+	public int indexOf(String name) {
+		Integer index = indexes.get(name);
+		return (index == null) ? -1 : index;
+	}
+
+	public String getName(int index) { return names[index]; }
+	public int size() { return names.length; }
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @return canonical variable.
+	 */
+	public Variable getVariable(int index) { return variables[index]; }
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @param isNormal
+	 * @return canonical literal.
+	 */
+	public Literal getLiteral(int index, boolean isNormal) {
+		return literals[Literal.getCode(index, isNormal)];
+	}
+
+	/**
+	 *
+	 * @param code literal code, see {@link Literal#getCode()}.
+	 * @return canonical literal.
+	 */
+	public Literal getLiteral(int code) { return literals[code]; }
+
+	/**
+	 *
+	 * @return number of literal codes, twice the number of variables.
+	 */
+	public int codes() { return literals.length; }
+
+	/**
+	 * Replaces every literal of a data set by its canonical literal, so the
+	 * data set shares two literals per variable. Literals are equal to their
+	 * canonical literals, so the data set is otherwise unchanged.
+	 *
+	 * @param dataSet data set of this schema.
+	 */
+	public void intern(TermList dataSet) {
+		for (Term minterm : dataSet) {
+			for (int i = 0; i < minterm.size(); ++i) {
+				Literal literal = literals[minterm.get(i).getCode()];
+				if (minterm.get(i) != literal)
+					minterm.set(i, literal);
+			}
+		}
+	}
+
+	@Override
+	public String toString() { return Arrays.toString(names); }
+
+}
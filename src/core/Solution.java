@@ -0,0 +1,29 @@
+package core;
+
+/**
+ * Final solution of an analysis: a cover of the onset that does not intersect
+ * the offset. A solution is complete if no phase was stopped early by its
+ * {@link Budget}. An incomplete solution is still a valid cover, but its
+ * terms may not be prime, and it may not be minimal.
+ *
+ * @author lvl2pillow
+ *
+ */
+public final class Solution {
+	private final TermSet cover;
+	private final boolean isComplete;
+
+	public Solution(TermSet cover, boolean isComplete) {
+		this.cover = cover;
+		this.isComplete = isComplete;
+	}
+
+	public TermSet getCover() { return cover; }
+	public boolean isComplete() { return isComplete; }
+
+	@Override
+	public String toString() {
+		return cover+(isComplete ? "" : " (incomplete)");
+	}
+
+}
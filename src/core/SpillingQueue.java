@@ -0,0 +1,351 @@
+package core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO queue with a bound on the elements kept on the heap. Elements beyond
+ * the bound are spilled in batches to a temporary file, in a compact binary
+ * encoding (see {@link Codec}), and are read back in order.
+ * </br>
+ * The heap holds at most two batches of half the bound each: the head, which
+ * is polled from, and the tail, which is offered to. A full tail is spilled
+ * to the file, and an empty head is refilled from the oldest spilled batch,
+ * else from the tail. The file is only created on the first spill, and is
+ * truncated whenever every spilled batch has been read back.
+ * </br>
+ * A queue must be closed to delete its file. A queue is not thread-safe.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class SpillingQueue<E> extends AbstractQueue<E> implements Closeable {
+	/**
+	 * Binary encoding of the elements of a queue.
+	 */
+	public interface Codec<E> {
+		void write(DataOutput out, E element) throws IOException;
+		E read(DataInput in) throws IOException;
+	}
+
+	private final Codec<E> codec;
+	private final int batchSize;				// elements per batch, half the bound
+	private ArrayDeque<E> head = new ArrayDeque<E>();
+	private ArrayDeque<E> tail = new ArrayDeque<E>();
+	private final ArrayDeque<Batch> batches = new ArrayDeque<Batch>();	// spilled, oldest first
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+	private File file;
+	private RandomAccessFile raf;
+	private long end;							// end of the spilled batches in the file
+	private int nSpilled;						// elements in the file
+	private long bytesSpilled;					// all bytes written so far
+
+	/**
+	 *
+	 * @param codec
+	 * @param bound maximum number of elements on the heap, at least 2. With
+	 * 	{@link Integer#MAX_VALUE} the queue never spills.
+	 */
+	public SpillingQueue(Codec<E> codec, int bound) {
+		if (bound < 2)
+			throw new IllegalArgumentException("bound must be at least 2.");
+		this.codec = codec;
+		this.batchSize = bound >>> 1;
+	}
+
+	@Override
+	public boolean offer(E element) {
+		if (element == null) throw new NullPointerException();
+		tail.add(element);
+		// without spilled batches, the tail directly follows the head
+		if (batches.isEmpty()) {
+			while (head.size() < batchSize && !tail.isEmpty())
+				head.add(tail.poll());
+		}
+		if (tail.size() >= batchSize)
+			spill();
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (head.isEmpty()) refill();
+		return head.poll();
+	}
+
+	@Override
+	public E peek() {
+		if (head.isEmpty()) refill();
+		return head.peek();
+	}
+
+	@Override
+	public int size() { return head.size()+nSpilled+tail.size(); }
+
+	@Override
+	public boolean isEmpty() { return size() == 0; }
+
+	/**
+	 *
+	 * @return number of bytes written to the file so far.
+	 */
+	public long getBytesSpilled() { return bytesSpilled; }
+
+	/**
+	 * Writes the tail to the end of the file as a batch.
+	 */
+	private void spill() {
+		try {
+			if (raf == null) {
+				file = File.createTempFile("frontier", ".bin");
+				file.deleteOnExit();
+				raf = new RandomAccessFile(file, "rw");
+			}
+			buffer.reset();
+			for (E element : tail)
+				codec.write(bufferOut, element);
+			bufferOut.flush();
+			raf.seek(end);
+			raf.write(buffer.toByteArray());
+			batches.add(new Batch(end, buffer.size(), tail.size()));
+			end += buffer.size();
+			bytesSpilled += buffer.size();
+			nSpilled += tail.size();
+			tail.clear();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Refills the empty head from the oldest spilled batch, else from the tail.
+	 */
+	private void refill() {
+		if (batches.isEmpty()) {
+			ArrayDeque<E> empty = head;
+			head = tail;
+			tail = empty;
+			return;
+		}
+		Batch batch = batches.poll();
+		read(batch, head);
+		nSpilled -= batch.count;
+		// every spilled batch is read back
+		if (batches.isEmpty()) {
+			end = 0;
+			try {
+				raf.setLength(0);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Decodes a spilled batch.
+	 *
+	 * @param batch
+	 * @param elements collection to add the elements to.
+	 */
+	private void read(Batch batch, Collection<E> elements) {
+		try {
+			byte[] bytes = new byte[batch.length];
+			raf.seek(batch.position);
+			raf.readFully(bytes);
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+			for (int i = 0; i < batch.count; ++i)
+				elements.add(codec.read(in));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Iterates in FIFO order, decoding spilled batches one at a time. The
+	 * queue must not be modified while iterating.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		final List<Batch> spilled = new ArrayList<Batch>(batches);
+		return new Iterator<E>() {
+			private Iterator<E> current = head.iterator();
+			private int nextBatch = 0;
+			private boolean isTail = false;
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext()) {
+					if (nextBatch < spilled.size()) {
+						List<E> elements = new ArrayList<E>();
+						read(spilled.get(nextBatch++), elements);
+						current = elements.iterator();
+					} else if (!isTail) {
+						isTail = true;
+						current = tail.iterator();
+					} else {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return current.next();
+			}
+		};
+	}
+
+	/**
+	 * Deletes the file. The queue must not be used after it is closed.
+	 */
+	@Override
+	public void close() {
+		head.clear();
+		tail.clear();
+		batches.clear();
+		nSpilled = 0;
+		if (raf == null) return;
+		try {
+			raf.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			raf = null;
+			file.delete();
+		}
+	}
+
+	/**
+	 * Encodes a term as its literal codes and weight, as variable-length
+	 * integers. Literals are decoded to the literals of a schema.
+	 *
+	 * @param schema
+	 * @return codec of terms.
+	 */
+	public static Codec<Term> termCodec(final Schema schema) {
+		return new Codec<Term>() {
+			@Override
+			public void write(DataOutput out, Term term) throws IOException {
+				writeVarInt(out, term.size());
+				for (Literal literal : term)
+					writeVarInt(out, literal.getCode());
+				writeVarInt(out, term.getWeight());
+			}
+
+			@Override
+			public Term read(DataInput in) throws IOException {
+				int size = readVarInt(in);
+				Term term = new Term();
+				for (int i = 0; i < size; ++i) {
+					int code = readVarInt(in);
+					term.add((code < schema.codes()) ? schema.getLiteral(code) :
+							new Literal(code >>> 1, (code & 1) == 1));
+				}
+				term.setWeight(readVarInt(in));
+				return term;
+			}
+		};
+	}
+
+	/**
+	 * Encodes a subset of a data set, e.g. a permutation of the onset, as the
+	 * gaps between the rows of its minterms in the data set. The subset must
+	 * keep the order of the data set, and its minterms must be the same
+	 * instances, which are shared again when decoded.
+	 * </br>
+	 * The rows of the minterms are only indexed on the first write.
+	 *
+	 * @param dataSet
+	 * @return codec of subsets of the data set.
+	 */
+	public static Codec<TermList> subsetCodec(final TermList dataSet) {
+		return new Codec<TermList>() {
+			private Map<Term, Integer> rows;		// (minterm instance : row)
+
+			@Override
+			public void write(DataOutput out, TermList subset) throws IOException {
+				if (rows == null) {
+					rows = new IdentityHashMap<Term, Integer>();
+					for (int row = 0; row < dataSet.size(); ++row)
+						rows.put(dataSet.get(row), row);
+				}
+				writeVarInt(out, subset.size());
+				int previous = -1;
+				for (Term minterm : subset) {
+					Integer row = rows.get(minterm);
+					if (row == null || row <= previous)
+						throw new IllegalArgumentException("not an ordered subset of the data set.");
+					writeVarInt(out, row-previous-1);
+					previous = row;
+				}
+			}
+
+			@Override
+			public TermList read(DataInput in) throws IOException {
+				int size = readVarInt(in);
+				TermList subset = new TermList();
+				subset.ensureCapacity(size);
+				int row = -1;
+				for (int i = 0; i < size; ++i) {
+					row += readVarInt(in)+1;
+					subset.add(dataSet.get(row));
+				}
+				return subset;
+			}
+		};
+	}
+
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; ; shift += 7) {
+			byte b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) return value;
+		}
+	}
+
+	/**
+	 * Position, length in bytes and number of elements of a spilled batch.
+	 */
+	private static final class Batch {
+		final long position;
+		final int length;
+		final int count;
+
+		Batch(long position, int length, int count) {
+			this.position = position;
+			this.length = length;
+			this.count = count;
+		}
+	}
+
+}
@@ -2,12 +2,19 @@ package core;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 
 /**
  * A {@code Term} is an {@link ArrayList} of {@link Literal} elements. Order of 
  * elements is preserved. Duplicate elements are not allowed. A {@code Term} may
  * represent a minterm, an implicant, or a term under construction.
+ * </br>
+ * A {@link PackedTerm} is kept alongside the literals, so that {@code covers},
+ * {@code contains} and the alternate form check in {@code add} are bitwise
+ * operations instead of list scans.
+ * </br>
+ * A minterm has a weight, the number of identical minterms it stands for in a
+ * compressed data set (see {@code data.TruthTable}). The weight is not part of
+ * equality.
  * 
  * @author lvl2pillow
  *
@@ -16,26 +23,58 @@ public class Term extends ArrayList<Literal> {
 	// auto-generated serialVersionUID
 	private static final long serialVersionUID = 7727278808609346835L;
 	
+	private transient volatile PackedTerm packed;	// packed form of the literals
+	private transient int packedModCount = -1;	// modCount when last packed
+	private int weight = 1;						// number of identical minterms
+	
 	public Term() {
 		super();
 	}
 	
 	public Term(Collection<Literal> term) {
 		super(term);
+		// copying a term is cheaper than re-packing the literals
+		if (term instanceof Term) {
+			this.packedModCount = modCount;
+			this.packed = ((Term) term).packed();
+			this.weight = ((Term) term).weight;
+		}
 	}
 	
 	@Override
 	public boolean add(Literal newLiteral) {
-		// can not add duplicate literal
-		if (this.contains(newLiteral)) return false;
-		// can not add literal if alternate form already exists
-		if (newLiteral.isNormal() && 
-				this.contains(new Literal(newLiteral.getIndex(), false)))
-			return false;
-		else if (newLiteral.isCompliment() && 
-				this.contains(new Literal(newLiteral.getIndex(), true)))
-			return false;
-		return super.add(newLiteral);
+		PackedTerm packed = packed();
+		// can not add duplicate literal, or literal if alternate form already exists
+		if (packed.contains(newLiteral.getIndex())) return false;
+		super.add(newLiteral);
+		packedModCount = modCount;
+		this.packed = packed.with(newLiteral.getIndex(), newLiteral.isNormal());
+		return true;
+	}
+	
+	@Override
+	public boolean remove(Object literal) {
+		PackedTerm packed = packed();
+		if (!super.remove(literal)) return false;
+		packedModCount = modCount;
+		this.packed = packed.without(((Literal) literal).getIndex());
+		return true;
+	}
+	
+	@Override
+	public Literal set(int index, Literal literal) {
+		// not a structural modification, force re-packing
+		packed = null;
+		return super.set(index, literal);
+	}
+	
+	@Override
+	public boolean contains(Object o) {
+		if (o instanceof Literal && o.getClass() == Literal.class) {
+			Literal literal = (Literal) o;
+			return packed().contains(literal.getIndex(), literal.isNormal());
+		}
+		return super.contains(o);
 	}
 	
 	/**
@@ -44,11 +83,7 @@ public class Term extends ArrayList<Literal> {
 	 * 	else {@code false}. An empty term covers nothing.
 	 */
 	public boolean covers(Term coveredTerm) {
-		if (super.isEmpty()) return false;
-		Iterator<Literal> i = super.iterator();
-		while (i.hasNext())
-			if (!coveredTerm.contains(i.next())) return false;
-		return true;
+		return packed().covers(coveredTerm.packed());
 	}
 	
 	/**
@@ -68,13 +103,61 @@ public class Term extends ArrayList<Literal> {
 	 */
 	public boolean intersects(TermList dataSet) {
 		boolean intersects = false;
+		PackedTerm packed = packed();
 		for (Term minterm : dataSet) {
-			if (this.covers(minterm)) {
+			if (packed.covers(minterm.packed())) {
 				intersects = true;
 				break;
 			}
 		}
 		return intersects;
 	}
+	
+	/**
+	 * 
+	 * @return number of identical minterms this minterm stands for, 1 unless 
+	 * 	the data set is compressed.
+	 */
+	public int getWeight() { return weight; }
+	
+	/**
+	 * 
+	 * @param weight number of identical minterms, at least 1.
+	 */
+	public void setWeight(int weight) {
+		if (weight < 1)
+			throw new IllegalArgumentException("weight must be at least 1.");
+		this.weight = weight;
+	}
+	
+	/**
+	 * 
+	 * @return packed form of this term, which is immutable.
+	 */
+	public PackedTerm getPackedTerm() {
+		return packed();
+	}
+	
+	/**
+	 * Returns the packed form of this term, re-packing the literals if the
+	 * term was modified through any other method than {@code add} or 
+	 * {@code remove}.
+	 * </br>
+	 * The packed form is immutable and published through a volatile field, 
+	 * after the modCount it was packed at, so a term that is no longer 
+	 * modified can be read, and packed, by many threads. Threads packing at 
+	 * the same time pack the same literals.
+	 * 
+	 * @return packed form of this term.
+	 */
+	PackedTerm packed() {
+		PackedTerm packed = this.packed;
+		if (packed == null || packedModCount != modCount) {
+			packed = PackedTerm.of(this);
+			packedModCount = modCount;
+			this.packed = packed;
+		}
+		return packed;
+	}
 
 }
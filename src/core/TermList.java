@@ -29,9 +29,10 @@ public class TermList extends ArrayList<Term> {
 	 * @return
 	 */
 	public boolean removeTermsCoveredBy(Term coveringTerm) {
+		PackedTerm packedTerm = coveringTerm.packed();
 		Iterator<Term> i = super.iterator();
 		while (i.hasNext()) {
-			if (coveringTerm.covers(i.next()))
+			if (packedTerm.covers(i.next().packed()))
 				i.remove();
 		}
 		return true;
@@ -50,11 +51,32 @@ public class TermList extends ArrayList<Term> {
 	 */
 	public TermList termsUncoveredBy(Term coveringTerm) {
 		TermList uncoveredTerms = new TermList();
+		PackedTerm packedTerm = coveringTerm.packed();
 		for (Term minterm : this) {
-			if (!coveringTerm.covers(minterm))
+			if (!packedTerm.covers(minterm.packed()))
 				uncoveredTerms.add(minterm);
 		}	
 		return uncoveredTerms.isEmpty() ? this : uncoveredTerms;
 	}
 	
+	/**
+	 * Returns a data set with all minterms that are covered by a specified term. 
+	 * </br>
+	 * <b>Note:</b> This method will never return an empty data set. If the
+	 * resulting data set is empty, this method will return the unmodified
+	 * data set instead.
+	 * 
+	 * @param coveringTerm
+	 * @return data set with covered minterms.
+	 */
+	public TermList termsCoveredBy(Term coveringTerm) {
+		TermList coveredTerms = new TermList();
+		PackedTerm packedTerm = coveringTerm.packed();
+		for (Term minterm : this) {
+			if (packedTerm.covers(minterm.packed()))
+				coveredTerms.add(minterm);
+		}	
+		return coveredTerms.isEmpty() ? this : coveredTerms;
+	}
+	
 }
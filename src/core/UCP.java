@@ -1,10 +1,9 @@
 package core;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+
+import heuristic.HeuristicContext;
 
 /**
  * Abstract class for Unate Covering Problem.
@@ -15,94 +14,214 @@ import java.util.Set;
 public abstract class UCP {
 	private final TermList onset;
 	private final TermSet primeImplicants;
+	protected final HeuristicContext context;	// dataset-level heuristics
+	private CoverMatrix coverMatrix;		// of the current run
+	private LazyGreedySelector mostCoveringSelector;	// of the current run
+	private final PhaseCounters counters = new PhaseCounters();
+	private Budget budget = Budget.UNLIMITED;
+	private boolean isStopped;					// last run stopped by the budget
+	private boolean isExact;					// minimum cover by ExactUCP
 	
 	public UCP(TermList onset, TermSet primeImplicants) {
-		this.onset = onset;
+		this(new HeuristicContext(onset, new TermList()), primeImplicants);
+	}
+	
+	/**
+	 * 
+	 * @param context heuristics of the analysis, shared with the other phases.
+	 * @param primeImplicants
+	 */
+	public UCP(HeuristicContext context, TermSet primeImplicants) {
+		this.context = context;
+		this.onset = context.getOnset();
 		this.primeImplicants = primeImplicants;
 	}
 	
+	public HeuristicContext getContext() { return context; }
+	
 	/**
-	 * Returns set of essential prime implicants.
+	 * 
+	 * @return counters of all runs so far.
+	 */
+	public PhaseCounters getCounters() { return counters; }
+	
+	/**
+	 * The selection stops early once the budget is exhausted, see 
+	 * {@link #essentialPrimeImplicants()}.
+	 * 
+	 * @param budget
+	 */
+	public void setBudget(Budget budget) { this.budget = budget; }
+	public Budget getBudget() { return budget; }
+	
+	/**
+	 * 
+	 * @return {@code false} if the last run was stopped by the budget.
+	 */
+	public boolean isComplete() { return !isStopped; }
+	
+	/**
+	 * With exact covering, every run returns a minimum cover found by 
+	 * {@link ExactUCP} within the budget, instead of the heuristic cover of 
+	 * the concrete class. A run stopped by the budget returns the best cover
+	 * found so far, and is not complete.
+	 * 
+	 * @param isExact
+	 */
+	public void setExact(boolean isExact) { this.isExact = isExact; }
+	public boolean isExact() { return isExact; }
+	
+	/**
+	 * Returns set of essential prime implicants. Every run is recorded as a 
+	 * {@link PhaseEvent}, and counted in {@link #getCounters()}.
 	 * 
 	 * @return
 	 */
 	public TermSet run() {
-		return essentialPrimeImplicants();
+		PhaseRun phaseRun = counters.begin("UCP");
+		TermSet essentialPrimeImplicants = essentialPrimeImplicants();
+		phaseRun.commit(this, essentialPrimeImplicants.size());
+		return essentialPrimeImplicants;
 	}
 	
 	/**
+	 * If the selection is stopped by its {@link Budget}, every minterm not
+	 * covered yet is covered by the first prime implicant that covers it, 
+	 * which is valid but not minimal.
 	 * 
 	 * @return set of essential prime implicants that wholly covers the onset.
 	 */
 	protected TermSet essentialPrimeImplicants() {
+		if (isExact) return exactEssentialPrimeImplicants();
+		isStopped = false;
+		// the selection empties the cover matrix, so every run starts afresh
+		coverMatrix = null;
+		mostCoveringSelector = null;
 		TermSet essentialPrimeImplicants = new TermSet();
-		Map<Term, Set<Term>> coverMatrix = getCoverMatrix();
+		CoverMatrix coverMatrix = getCoverMatrix();
 		while (!coverMatrix.isEmpty()) {
+			if (budget.isExhausted()) {
+				isStopped = true;
+				firstCovering(essentialPrimeImplicants, coverMatrix);
+				break;
+			}
+			counters.iteration();
 			essentialPrimeImplicantsHelper(essentialPrimeImplicants, coverMatrix);
 		}
 		return essentialPrimeImplicants;
 	}
 	
+	/**
+	 * 
+	 * @return minimum set of essential prime implicants, or the best set found
+	 * 	within the budget.
+	 */
+	private TermSet exactEssentialPrimeImplicants() {
+		ExactUCP exactUCP = new ExactUCP(onset, primeImplicants);
+		exactUCP.setBudget(budget);
+		counters.coverChecks((long) onset.size()*primeImplicants.size());
+		TermSet essentialPrimeImplicants = exactUCP.run();
+		counters.iterations(exactUCP.getNodes());
+		isStopped = !exactUCP.isOptimal();
+		return essentialPrimeImplicants;
+	}
+	
+	/**
+	 * Covers every minterm not covered yet with the first prime implicant 
+	 * that covers it, in one pass over the rows.
+	 * 
+	 * @param essentialPrimeImplicants
+	 * @param coverMatrix
+	 */
+	private void firstCovering(TermSet essentialPrimeImplicants, CoverMatrix coverMatrix) {
+		long[] activeRows = coverMatrix.getActiveRows();
+		for (int w = 0; w < activeRows.length; ++w) {
+			for (long word = activeRows[w]; word != 0; word &= word-1) {
+				int row = (w << 6) + Long.numberOfTrailingZeros(word);
+				// covered by an earlier selection of this pass
+				if (!coverMatrix.isActive(row)) continue;
+				for (int j = 0; j < coverMatrix.columns(); ++j) {
+					if ((coverMatrix.getColumn(j)[w] & Long.lowestOneBit(word)) != 0) {
+						select(essentialPrimeImplicants, coverMatrix, j);
+						break;
+					}
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Abstract method for finding essential prime implicants.
-	 * This method must be implemented in a concrete class.
+	 * This method must be implemented in a concrete class, and must remove 
+	 * the rows covered by the essential prime implicants it finds from the 
+	 * cover matrix, e.g. with {@link #select(TermSet, CoverMatrix, int)}.
 	 */
 	protected abstract void essentialPrimeImplicantsHelper(TermSet essentialPrimeImplicants, 
-			Map<Term, Set<Term>> coverMatrix);
+			CoverMatrix coverMatrix);
+	
+	/**
+	 * Adds the prime implicant of a column to the essential prime implicants,
+	 * and removes the rows it covers from the cover matrix.
+	 * 
+	 * @param essentialPrimeImplicants
+	 * @param coverMatrix
+	 * @param column
+	 */
+	protected void select(TermSet essentialPrimeImplicants, CoverMatrix coverMatrix, 
+			int column) {
+		essentialPrimeImplicants.add(coverMatrix.getPrimeImplicant(column));
+		coverMatrix.removeRowsCoveredBy(column);
+	}
 	
 	/**
 	 * A cover matrix shows which minterms are covered by which prime implicants.
 	 * </br>
-	 * (key = minterm : value = set of prime implicants that covers the minterm)
+	 * (rows = minterms : columns = prime implicants)
+	 * </br>
+	 * The matrix is built once per run, and is updated in place as essential 
+	 * prime implicants are selected.
 	 * 
 	 * @return cover matrix.
 	 */
-	protected Map<Term, Set<Term>> getCoverMatrix() {
-		Map<Term, Set<Term>> coverMatrix = new HashMap<Term, Set<Term>>();
-		for (Term minterm : onset) {
-			// set of prime implicants that covers the minterm
-			Set<Term> primeImplicants = new HashSet<Term>();
-			for (Term primeImplicant : this.primeImplicants) {
-				if (primeImplicant.covers(minterm))
-					primeImplicants.add(primeImplicant);
-			}
-			coverMatrix.put(minterm, primeImplicants);
+	protected CoverMatrix getCoverMatrix() {
+		if (coverMatrix == null) {
+			coverMatrix = new CoverMatrix(onset, primeImplicants);
+			counters.coverChecks((long) onset.size()*primeImplicants.size());
 		}
 		return coverMatrix;
 	}
 	
 	/**
+	 * Lazy greedy selection of the prime implicant covering the most minterms
+	 * not covered yet, with ties broken by the least covered heuristic. The
+	 * selector is built once per run, over the cover matrix of the run.
 	 * 
-	 * @return map of prime implicants with count of minterms that only they cover.
+	 * @return selector over the cover matrix.
+	 */
+	protected LazyGreedySelector getMostCoveringSelector() {
+		if (mostCoveringSelector == null)
+			mostCoveringSelector = new LazyGreedySelector(getCoverMatrix());
+		return mostCoveringSelector;
+	}
+	
+	/**
+	 * 
+	 * @return map of prime implicants with count of minterms, not covered yet,
+	 * 	that only they cover.
 	 */
 	protected Map<Term, Integer> getLeastCoveredHeuristic() {
 		Map<Term, Integer> leastCoveredHeuristic = new HashMap<Term, Integer>();
-		Map<Term, Set<Term>> coverMatrix = getCoverMatrix();
-		for (Entry<Term, Set<Term>> entry : coverMatrix.entrySet()) {
-			Set<Term> primeImplicants = entry.getValue();
-			// only prime implicant that covers the minterm
-			if (primeImplicants.size() == 1) {
-				Term primeImplicant = null;
-				// get first and only prime implicant
-				for (Term term : primeImplicants) {
-					primeImplicant = term;
-					break;
-				}
-				// TODO log if primeImplicant == null
-				if (!leastCoveredHeuristic.containsKey(primeImplicant))
-					leastCoveredHeuristic.put(primeImplicant, 0);
-				// increment count
-				leastCoveredHeuristic.replace(primeImplicant, 
-						leastCoveredHeuristic.get(primeImplicant)+1);
-			}
+		CoverMatrix coverMatrix = getCoverMatrix();
+		int[] leastCovered = coverMatrix.leastCovered();
+		for (int j = 0; j < leastCovered.length; ++j) {
+			// only prime implicant that covers the minterms
+			if (leastCovered[j] > 0)
+				leastCoveredHeuristic.put(coverMatrix.getPrimeImplicant(j), leastCovered[j]);
 		}
 		return leastCoveredHeuristic;
 	}
 	
 	/**
-	 * NOTE: This method is very inefficient currently. If you save the uncovered
-	 * minterms as you find more essential prime implicants, it will save some
-	 * unnecessary processes.
 	 * 
 	 * @param essentialPrimeImplicants set of essential prime implicants found.
 	 * @return map of prime implicants with count of minterms that they cover
@@ -110,19 +229,17 @@ public abstract class UCP {
 	 */
 	protected Map<Term, Integer> getMostCoveredHeuristic(TermSet essentialPrimeImplicants) {
 		Map<Term, Integer> mostCoveredHeuristic = new HashMap<Term, Integer>();
+		CoverMatrix coverMatrix = getCoverMatrix();
 		// get uncovered minterms
-		TermList uncoveredOnset = onset;
-		for (Term essentialPrimeImplicant : essentialPrimeImplicants)
-			uncoveredOnset = uncoveredOnset.termsUncoveredBy(essentialPrimeImplicant);
-		// find number of remaining uncovered minterms covered by each prime implicant
-		for (Term primeImplicant : primeImplicants) {
-			mostCoveredHeuristic.put(primeImplicant, 0);
-			for (Term minterm : uncoveredOnset) {
-				if (primeImplicant.covers(minterm))
-					// increment count
-					mostCoveredHeuristic.replace(primeImplicant, 
-							mostCoveredHeuristic.get(primeImplicant)+1);
-			}
+		long[] uncoveredRows = coverMatrix.rowsUncoveredBy(essentialPrimeImplicants);
+		// find weight of remaining uncovered minterms covered by each prime implicant
+		long[] coveredRows = new long[uncoveredRows.length];
+		for (int j = 0; j < coverMatrix.columns(); ++j) {
+			long[] column = coverMatrix.getColumn(j);
+			for (int w = 0; w < uncoveredRows.length; ++w)
+				coveredRows[w] = column[w] & uncoveredRows[w];
+			mostCoveredHeuristic.put(coverMatrix.getPrimeImplicant(j), 
+					coverMatrix.weightOf(coveredRows));
 		}
 		return mostCoveredHeuristic;
 	}
@@ -0,0 +1,203 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Calibration turns a fuzzy data set into a crisp data set. Every variable has
+ * a threshold, the mean or median of the variable over the onset and offset,
+ * and a value is 1 if it is greater than the threshold, else 0.
+ * </br>
+ * Thresholds are found in one parallel pass over the columns, and the median
+ * is found by selection rather than sorting. Crisp rows are written in
+ * parallel straight into the packed onset and offset.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class Calibration {
+	private static final int BLOCK_SIZE = 1 << 14;	// rows per task, a multiple of 64
+
+	public enum Statistic { MEAN, MEDIAN }
+
+	private final Statistic statistic;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	public Calibration(Statistic statistic) {
+		this.statistic = statistic;
+	}
+
+	/**
+	 *
+	 * @param parallelism number of threads, at least 1.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1.");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Calibrates a fuzzy data set.
+	 *
+	 * @param fuzzyData
+	 * @return crisp data set.
+	 */
+	public Data calibrate(FuzzyData fuzzyData) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			double[] thresholds = thresholds(fuzzyData, pool);
+			return crisp(fuzzyData, thresholds, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 *
+	 * @param fuzzyData
+	 * @return (variable index : threshold).
+	 */
+	public double[] thresholds(FuzzyData fuzzyData) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return thresholds(fuzzyData, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private double[] thresholds(FuzzyData fuzzyData, ForkJoinPool pool) {
+		int nVariables = fuzzyData.getSchema().size();
+		int nRows = fuzzyData.size();
+		if (nRows == 0)
+			throw new IllegalArgumentException("data set is empty.");
+		double[] thresholds = new double[nVariables];
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+		for (int j = 0; j < nVariables; ++j) {
+			final int index = j;
+			tasks.add(pool.submit(() -> {
+				double[] column = fuzzyData.getColumn(index);
+				thresholds[index] = (statistic == Statistic.MEAN) ?
+						mean(column, nRows) : median(column, nRows);
+			}));
+		}
+		for (ForkJoinTask<?> task : tasks)
+			task.join();
+		return thresholds;
+	}
+
+	/**
+	 * Writes crisp rows in parallel over blocks of rows. The position of every
+	 * row in the onset or offset is known from the outcomes of the rows before
+	 * the block, so blocks write to disjoint rows.
+	 */
+	private Data crisp(FuzzyData fuzzyData, double[] thresholds, ForkJoinPool pool) {
+		int nVariables = thresholds.length;
+		int nRows = fuzzyData.size();
+		int nOnset = fuzzyData.onsetSize();
+		PackedDataSet onset = new PackedDataSet(fuzzyData.getSchema(), nOnset);
+		PackedDataSet offset = new PackedDataSet(fuzzyData.getSchema(), nRows-nOnset);
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+		int onsetRow = 0;
+		for (int from = 0; from < nRows; from += BLOCK_SIZE) {
+			final int blockFrom = from;
+			final int blockTo = Math.min(nRows, from+BLOCK_SIZE);
+			final int blockOnsetRow = onsetRow;
+			tasks.add(pool.submit(() -> {
+				int onsetIndex = blockOnsetRow;
+				int offsetIndex = blockFrom-blockOnsetRow;
+				for (int i = blockFrom; i < blockTo; ++i) {
+					boolean isPositive = fuzzyData.isPositive(i);
+					PackedDataSet dataSet = isPositive ? onset : offset;
+					int row = isPositive ? onsetIndex++ : offsetIndex++;
+					for (int j = 0; j < nVariables; ++j)
+						if (fuzzyData.get(i, j) > thresholds[j])
+							dataSet.set(row, j, true);
+				}
+			}));
+			for (int i = blockFrom; i < blockTo; ++i)
+				if (fuzzyData.isPositive(i)) ++onsetRow;
+		}
+		for (ForkJoinTask<?> task : tasks)
+			task.join();
+		return new Data(fuzzyData.getSchema(), onset, offset);
+	}
+
+	/**
+	 *
+	 * @param values
+	 * @param n number of values used.
+	 * @return mean of the values.
+	 */
+	public static double mean(double[] values, int n) {
+		double sum = 0;
+		for (int i = 0; i < n; ++i)
+			sum += values[i];
+		return sum/n;
+	}
+
+	/**
+	 * Median by quickselect, in expected linear time.
+	 *
+	 * @param values
+	 * @param n number of values used.
+	 * @return median of the values.
+	 */
+	public static double median(double[] values, int n) {
+		double[] copy = new double[n];
+		System.arraycopy(values, 0, copy, 0, n);
+		int k = n/2;
+		double upper = select(copy, k);
+		if (n%2 == 1) return upper;
+		// the lower middle value is the max of the values before k
+		double lower = copy[0];
+		for (int i = 1; i < k; ++i)
+			lower = Math.max(lower, copy[i]);
+		return (lower+upper)/2.0;
+	}
+
+	/**
+	 * Partially sorts the values, so the k-th smallest value is at index k,
+	 * with smaller or equal values before it.
+	 *
+	 * @param values
+	 * @param k
+	 * @return k-th smallest value.
+	 */
+	private static double select(double[] values, int k) {
+		int left = 0;
+		int right = values.length-1;
+		while (left < right) {
+			// median of three pivot
+			int middle = (left+right) >>> 1;
+			if (values[middle] < values[left]) swap(values, middle, left);
+			if (values[right] < values[left]) swap(values, right, left);
+			if (values[right] < values[middle]) swap(values, right, middle);
+			double pivot = values[middle];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (values[i] < pivot) ++i;
+				while (values[j] > pivot) --j;
+				if (i <= j) swap(values, i++, j--);
+			}
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				break;
+		}
+		return values[k];
+	}
+
+	private static void swap(double[] values, int i, int j) {
+		double value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	}
+
+}
@@ -0,0 +1,363 @@
+package data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+import core.Schema;
+
+/**
+ * Reads a data set from a CSV file. The last column of the file must be the
+ * outcome (0 or 1), and every other value must be within the interval [0, 1],
+ * or 0 or 1 for a crisp data set.
+ * </br>
+ * The file is memory-mapped in chunks that end on line boundaries, and the
+ * chunks are parsed in parallel straight into {@link PackedDataSet}s, without
+ * creating any {@link core.Literal}. Rows keep the order of the file.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class CsvLoader {
+	private static final long MIN_CHUNK_SIZE = 1L << 20;	// 1 MB
+	private static final long MAX_CHUNK_SIZE = 1L << 30;	// 1 GB, below the 2 GB mapping limit
+
+	private final Path file;
+	private boolean hasHeader = true;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	public CsvLoader(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 *
+	 * @param hasHeader whether the first line of the file holds the variable
+	 * 	names. Default is {@code true}.
+	 */
+	public void setHeader(boolean hasHeader) { this.hasHeader = hasHeader; }
+
+	/**
+	 *
+	 * @param parallelism number of threads, at least 1.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1.");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Reads a crisp file.
+	 *
+	 * @return the variables, onset and offset of the file.
+	 * @throws IOException if the file cannot be read.
+	 * @throws IllegalArgumentException if the file is not a valid crisp data
+	 * 	set.
+	 */
+	public Data load() throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long[] start = new long[1];
+			Schema schema = readSchema(channel, start);
+			Data data = new Data(schema);
+			// merge in file order
+			for (Data chunk : parse(channel, start[0], () -> new CrispParser(schema)))
+				data.addAll(chunk);
+			return data;
+		}
+	}
+
+	/**
+	 * Reads a fuzzy file, i.e. values are within the interval [0, 1]. Use
+	 * {@link Calibration} to turn the values into a crisp data set.
+	 *
+	 * @return the variables, values and outcomes of the file.
+	 * @throws IOException if the file cannot be read.
+	 * @throws IllegalArgumentException if the file is not a valid data set.
+	 */
+	public FuzzyData loadFuzzy() throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long[] start = new long[1];
+			Schema schema = readSchema(channel, start);
+			FuzzyData data = new FuzzyData(schema);
+			for (FuzzyData chunk : parse(channel, start[0], () -> new FuzzyParser(schema)))
+				data.addAll(chunk);
+			return data;
+		}
+	}
+
+	/**
+	 * Reads the first non-empty line of the file.
+	 *
+	 * @param channel
+	 * @param start returns the start of the data in the file.
+	 * @return variables of the file.
+	 */
+	private Schema readSchema(FileChannel channel, long[] start) throws IOException {
+		long size = channel.size();
+		if (size == 0)
+			throw new IllegalArgumentException("file is empty.");
+		long position = 0;
+		String firstLine = "";
+		while (position < size && firstLine.trim().isEmpty()) {
+			long end = nextLine(channel, position);
+			firstLine = readString(channel, position, end);
+			position = end;
+		}
+		String[] cells = firstLine.trim().split(",", -1);
+		if (cells.length < 2)
+			throw new IllegalArgumentException("file must have variables and an outcome.");
+		if (!hasHeader) {
+			start[0] = 0;
+			return Schema.of(cells.length-1);
+		}
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < cells.length-1; ++i)
+			names.add(cells[i].trim());
+		start[0] = position;
+		return new Schema(names);
+	}
+
+	/**
+	 * Parses every chunk of the file in parallel.
+	 *
+	 * @return result of every chunk, in file order.
+	 */
+	private <T> List<T> parse(FileChannel channel, long start,
+			Supplier<ChunkParser<T>> parserSupplier) throws IOException {
+		long[] bounds = chunkBounds(channel, start, channel.size());
+		List<ForkJoinTask<T>> tasks = new ArrayList<ForkJoinTask<T>>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			for (int i = 0; i+1 < bounds.length; ++i) {
+				if (bounds[i] == bounds[i+1]) continue;
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+						bounds[i], bounds[i+1]-bounds[i]);
+				long offset = bounds[i];
+				tasks.add(pool.submit(() -> parserSupplier.get().parse(buffer, offset)));
+			}
+			List<T> results = new ArrayList<T>();
+			for (ForkJoinTask<T> task : tasks)
+				results.add(task.join());
+			return results;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 *
+	 * @return start of every chunk, and the end of the file. Every chunk
+	 * 	starts at the beginning of a line.
+	 */
+	private long[] chunkBounds(FileChannel channel, long start, long size) throws IOException {
+		long length = size-start;
+		long chunkSize = Math.max(MIN_CHUNK_SIZE, length/(parallelism*4L)+1);
+		chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+		int nChunks = (int) Math.max(1, (length+chunkSize-1)/chunkSize);
+		long[] bounds = new long[nChunks+1];
+		bounds[0] = start;
+		for (int i = 1; i < nChunks; ++i)
+			bounds[i] = Math.max(bounds[i-1], nextLine(channel, Math.min(size, start+i*chunkSize)));
+		bounds[nChunks] = size;
+		return bounds;
+	}
+
+	/**
+	 *
+	 * @param channel
+	 * @param position
+	 * @return start of the line after the position, or the end of the file.
+	 */
+	private static long nextLine(FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long size = channel.size();
+		while (position < size) {
+			buffer.clear();
+			int n = channel.read(buffer, position);
+			if (n <= 0) break;
+			for (int i = 0; i < n; ++i)
+				if (buffer.get(i) == '\n') return position+i+1;
+			position += n;
+		}
+		return size;
+	}
+
+	private static String readString(FileChannel channel, long from, long to) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) (to-from));
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, from+buffer.position()) < 0) break;
+		return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parses the lines of one chunk.
+	 */
+	private static abstract class ChunkParser<T> {
+		protected final int nVariables;
+
+		ChunkParser(Schema schema) {
+			this.nVariables = schema.size();
+		}
+
+		/**
+		 * A value of the current row.
+		 *
+		 * @param index variable index.
+		 * @param value within the interval [0, 1].
+		 * @param position position in the file, for error messages.
+		 */
+		protected abstract void value(int index, double value, long position);
+
+		/**
+		 * End of the current row.
+		 *
+		 * @param isPositive outcome of the row.
+		 */
+		protected abstract void endRow(boolean isPositive);
+
+		protected abstract T result();
+
+		/**
+		 *
+		 * @param buffer chunk of the file.
+		 * @param offset position of the chunk in the file, for error messages.
+		 * @return
+		 */
+		T parse(ByteBuffer buffer, long offset) {
+			int limit = buffer.limit();
+			int column = 0;
+			int cellStart = 0;
+			for (int i = 0; i <= limit; ++i) {
+				byte b = (i < limit) ? buffer.get(i) : (byte) '\n';
+				if (b != ',' && b != '\n') continue;
+				int from = cellStart;
+				int to = i;
+				// trim spaces and carriage returns
+				while (from < to && isBlank(buffer.get(from))) ++from;
+				while (to > from && isBlank(buffer.get(to-1))) --to;
+				cellStart = i+1;
+				if (b == '\n' && column == 0 && from == to) continue;	// empty line
+				if (from == to)
+					throw error("values must be non-empty", offset+from);
+				if (column < nVariables) {
+					value(column, parseValue(buffer, from, to, offset), offset+from);
+				} else if (column == nVariables) {
+					if (to-from != 1 || (buffer.get(from) != '0' && buffer.get(from) != '1'))
+						throw error("outcomes must be 0 or 1", offset+from);
+					if (b != '\n')
+						throw error("rows must have equal length", offset+i);
+					endRow(buffer.get(from) == '1');
+				}
+				if (b == '\n') {
+					if (column != nVariables)
+						throw error("rows must have equal length", offset+i);
+					column = 0;
+				} else {
+					++column;
+				}
+			}
+			return result();
+		}
+
+		static boolean isBlank(byte b) {
+			return b == ' ' || b == '\t' || b == '\r';
+		}
+
+		static double parseValue(ByteBuffer buffer, int from, int to, long offset) {
+			// common crisp values
+			if (to-from == 1) {
+				byte b = buffer.get(from);
+				if (b == '0') return 0;
+				if (b == '1') return 1;
+			}
+			byte[] bytes = new byte[to-from];
+			for (int i = from; i < to; ++i)
+				bytes[i-from] = buffer.get(i);
+			try {
+				double value = Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+				if (value < 0 || value > 1)
+					throw error("values must be within the interval [0, 1]", offset+from);
+				return value;
+			} catch (NumberFormatException e) {
+				throw error("values must be numbers", offset+from);
+			}
+		}
+
+		static IllegalArgumentException error(String message, long position) {
+			return new IllegalArgumentException(message+", at byte "+position+".");
+		}
+	}
+
+	/**
+	 * Writes rows as bits into a {@link Data}.
+	 */
+	private static final class CrispParser extends ChunkParser<Data> {
+		private final long[] row;			// bits of the current minterm
+		private final Data data;
+
+		CrispParser(Schema schema) {
+			super(schema);
+			this.row = new long[(nVariables+63) >>> 6];
+			this.data = new Data(schema);
+		}
+
+		@Override
+		protected void value(int index, double value, long position) {
+			if (value == 1)
+				row[index >>> 6] |= 1L << index;
+			else if (value != 0)
+				throw error("values must be 0 or 1 (calibrate fuzzy data sets)", position);
+		}
+
+		@Override
+		protected void endRow(boolean isPositive) {
+			if (isPositive)
+				data.getOnset().add(row);
+			else
+				data.getOffset().add(row);
+			Arrays.fill(row, 0L);
+		}
+
+		@Override
+		protected Data result() { return data; }
+	}
+
+	/**
+	 * Writes rows into a {@link FuzzyData}.
+	 */
+	private static final class FuzzyParser extends ChunkParser<FuzzyData> {
+		private final double[] row;			// values of the current row
+		private final FuzzyData data;
+
+		FuzzyParser(Schema schema) {
+			super(schema);
+			this.row = new double[nVariables];
+			this.data = new FuzzyData(schema);
+		}
+
+		@Override
+		protected void value(int index, double value, long position) {
+			row[index] = value;
+		}
+
+		@Override
+		protected void endRow(boolean isPositive) {
+			data.add(row, isPositive);
+		}
+
+		@Override
+		protected FuzzyData result() { return data; }
+	}
+
+}
@@ -0,0 +1,42 @@
+package data;
+
+import core.Schema;
+
+/**
+ * A crisp data set read from an input file: the variables, the onset
+ * (minterms leading to a positive outcome), and the offset (minterms leading
+ * to a negative outcome).
+ *
+ * @author lvl2pillow
+ *
+ */
+public class Data {
+	private final Schema schema;
+	private final PackedDataSet onset;
+	private final PackedDataSet offset;
+
+	public Data(Schema schema) {
+		this(schema, new PackedDataSet(schema), new PackedDataSet(schema));
+	}
+
+	public Data(Schema schema, PackedDataSet onset, PackedDataSet offset) {
+		this.schema = schema;
+		this.onset = onset;
+		this.offset = offset;
+	}
+
+	/**
+	 * Appends the onset and offset of another data set with the same schema.
+	 *
+	 * @param data
+	 */
+	public void addAll(Data data) {
+		onset.addAll(data.onset);
+		offset.addAll(data.offset);
+	}
+
+	public Schema getSchema() { return schema; }
+	public PackedDataSet getOnset() { return onset; }
+	public PackedDataSet getOffset() { return offset; }
+
+}
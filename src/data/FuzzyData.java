@@ -0,0 +1,123 @@
+package data;
+
+import java.util.Arrays;
+
+import core.Schema;
+
+/**
+ * A fuzzy data set read from an input file: the membership value (within the
+ * interval [0, 1]) of every variable of every case, and the outcome of every
+ * case. Values are stored by column, as doubles like the Python version, so
+ * values at a calibration threshold compare the same.
+ * </br>
+ * A data set is not thread-safe.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class FuzzyData {
+	private final Schema schema;
+	private final double[][] columns;	// (variable index : value of every row)
+	private long[] outcomes;			// bitset of rows with a positive outcome
+	private int nRows;
+	private int capacity;
+
+	public FuzzyData(Schema schema) {
+		this.schema = schema;
+		this.capacity = 64;
+		this.columns = new double[schema.size()][capacity];
+		this.outcomes = new long[1];
+		this.nRows = 0;
+	}
+
+	/**
+	 * Appends a row.
+	 *
+	 * @param row values of the row.
+	 * @param isPositive outcome of the row.
+	 */
+	public void add(double[] row, boolean isPositive) {
+		ensureCapacity(nRows+1);
+		for (int j = 0; j < columns.length; ++j)
+			columns[j][nRows] = row[j];
+		if (isPositive)
+			outcomes[nRows >>> 6] |= 1L << nRows;
+		++nRows;
+	}
+
+	/**
+	 * Appends all rows of another data set with the same schema.
+	 *
+	 * @param data
+	 */
+	public void addAll(FuzzyData data) {
+		if (data.columns.length != columns.length)
+			throw new IllegalArgumentException("data sets must have the same schema.");
+		ensureCapacity(nRows+data.nRows);
+		for (int j = 0; j < columns.length; ++j)
+			System.arraycopy(data.columns[j], 0, columns[j], nRows, data.nRows);
+		for (int i = 0; i < data.nRows; ++i)
+			if (data.isPositive(i))
+				outcomes[(nRows+i) >>> 6] |= 1L << (nRows+i);
+		nRows += data.nRows;
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @param index variable index.
+	 * @return value of the variable in the row.
+	 */
+	public double get(int row, int index) { return columns[index][row]; }
+
+	/**
+	 *
+	 * @param row
+	 * @return {@code true} if the row has a positive outcome.
+	 */
+	public boolean isPositive(int row) {
+		return (outcomes[row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @return values of the variable, of which the first {@link #size()} are
+	 * 	used. The returned array must not be modified.
+	 */
+	public double[] getColumn(int index) { return columns[index]; }
+
+	/**
+	 *
+	 * @return number of rows with a positive outcome.
+	 */
+	public int onsetSize() {
+		int count = 0;
+		for (long word : outcomes)
+			count += Long.bitCount(word);
+		return count;
+	}
+
+	/**
+	 *
+	 * @return {@code true} if every value is 0 or 1.
+	 */
+	public boolean isCrisp() {
+		for (double[] column : columns)
+			for (int i = 0; i < nRows; ++i)
+				if (column[i] != 0 && column[i] != 1) return false;
+		return true;
+	}
+
+	private void ensureCapacity(int nNewRows) {
+		if (nNewRows <= capacity) return;
+		capacity = Math.max(nNewRows, capacity << 1);
+		for (int j = 0; j < columns.length; ++j)
+			columns[j] = Arrays.copyOf(columns[j], capacity);
+		outcomes = Arrays.copyOf(outcomes, (capacity+63) >>> 6);
+	}
+
+	public Schema getSchema() { return schema; }
+	public int size() { return nRows; }
+
+}
@@ -0,0 +1,196 @@
+package data;
+
+import java.util.SplittableRandom;
+
+import core.Schema;
+import core.Term;
+import core.TermSet;
+
+/**
+ * Generates synthetic data sets with a planted solution. A hidden sum of
+ * products of random terms decides the outcome: a row is in the onset if any
+ * planted term covers it, else it is in the offset. A correct analysis of a
+ * noise-free data set with enough rows should recover the planted terms.
+ * </br>
+ * Rows are random minterms. With the noise probability the outcome of a row
+ * is flipped, and with the duplication probability a row is a copy (with
+ * outcome) of an earlier row. Noisy duplicates produce contradictions, see
+ * {@link core.Contradictions}.
+ * </br>
+ * A generator is deterministic for a seed.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class Generator {
+	private final int nVariables;
+	private final int nRows;
+	private int nTerms = 3;				// planted terms
+	private int termLength = 3;			// literals per planted term
+	private double noise = 0.0;			// probability of a flipped outcome
+	private double duplication = 0.0;	// probability of a duplicated row
+	private long seed = 0;
+	private TermSet plantedTerms;
+
+	/**
+	 *
+	 * @param nVariables number of variables, at least 1.
+	 * @param nRows number of rows of the onset and offset.
+	 */
+	public Generator(int nVariables, int nRows) {
+		if (nVariables < 1 || nRows < 0)
+			throw new IllegalArgumentException("at least 1 variable and 0 rows are required.");
+		this.nVariables = nVariables;
+		this.nRows = nRows;
+	}
+
+	/**
+	 *
+	 * @param nTerms number of planted terms, at least 1.
+	 * @param termLength literals per planted term, between 1 and the number
+	 * 	of variables.
+	 */
+	public void setPlantedTerms(int nTerms, int termLength) {
+		if (nTerms < 1 || termLength < 1 || termLength > nVariables)
+			throw new IllegalArgumentException("invalid number or length of planted terms.");
+		this.nTerms = nTerms;
+		this.termLength = termLength;
+	}
+
+	/**
+	 *
+	 * @param noise probability that the outcome of a row is flipped.
+	 */
+	public void setNoise(double noise) {
+		if (!(noise >= 0 && noise <= 1))
+			throw new IllegalArgumentException("noise must be between 0 and 1.");
+		this.noise = noise;
+	}
+
+	/**
+	 *
+	 * @param duplication probability that a row is a copy of an earlier row.
+	 */
+	public void setDuplication(double duplication) {
+		if (!(duplication >= 0 && duplication <= 1))
+			throw new IllegalArgumentException("duplication must be between 0 and 1.");
+		this.duplication = duplication;
+	}
+
+	public void setSeed(long seed) { this.seed = seed; }
+
+	/**
+	 * Generates a data set, and the planted terms that decide its outcomes.
+	 *
+	 * @return data set of random rows.
+	 */
+	public Data generate() {
+		SplittableRandom random = new SplittableRandom(seed);
+		Schema schema = Schema.of(nVariables);
+		this.plantedTerms = plantedTerms(random, schema);
+		int nWords = (nVariables+63) >>> 6;
+		long[][] planted = new long[nTerms][];		// (term : care words, value words)
+		int t = 0;
+		for (Term term : plantedTerms)
+			planted[t++] = pack(term, nWords);
+		PackedDataSet onset = new PackedDataSet(schema);
+		PackedDataSet offset = new PackedDataSet(schema);
+		long[] rows = new long[nRows*nWords];
+		boolean[] outcomes = new boolean[nRows];
+		for (int row = 0; row < nRows; ++row) {
+			int offsetOfRow = row*nWords;
+			if (row > 0 && random.nextDouble() < duplication) {
+				// copy of an earlier row, with its outcome
+				int copy = random.nextInt(row);
+				System.arraycopy(rows, copy*nWords, rows, offsetOfRow, nWords);
+				outcomes[row] = outcomes[copy];
+			} else {
+				for (int w = 0; w < nWords; ++w) {
+					int nBits = Math.min(64, nVariables-(w << 6));
+					rows[offsetOfRow+w] = (nBits == 64) ? random.nextLong() :
+							random.nextLong() & ((1L << nBits)-1);
+				}
+				outcomes[row] = isCovered(planted, rows, offsetOfRow, nWords);
+				if (random.nextDouble() < noise)
+					outcomes[row] = !outcomes[row];
+			}
+			if (outcomes[row])
+				onset.add(rows, offsetOfRow);
+			else
+				offset.add(rows, offsetOfRow);
+		}
+		return new Data(schema, onset, offset);
+	}
+
+	/**
+	 *
+	 * @return terms planted by the last {@link #generate()}, or {@code null}
+	 * 	before the first data set is generated.
+	 */
+	public TermSet getPlantedTerms() { return plantedTerms; }
+
+	/**
+	 *
+	 * @param random
+	 * @param schema
+	 * @return distinct random terms, with literals in variable order.
+	 */
+	private TermSet plantedTerms(SplittableRandom random, Schema schema) {
+		TermSet plantedTerms = new TermSet();
+		// a fixed term length limits the number of distinct terms
+		long maxTerms = 1;
+		for (int i = 0; i < termLength && maxTerms < nTerms; ++i)
+			maxTerms *= 2*(nVariables-i);
+		if (maxTerms < nTerms)
+			throw new IllegalArgumentException("too many planted terms for the number of variables.");
+		while (plantedTerms.size() < nTerms) {
+			boolean[] isUsed = new boolean[nVariables];
+			int nUsed = 0;
+			while (nUsed < termLength) {
+				int index = random.nextInt(nVariables);
+				if (!isUsed[index]) {
+					isUsed[index] = true;
+					++nUsed;
+				}
+			}
+			Term term = new Term();
+			for (int i = 0; i < nVariables; ++i)
+				if (isUsed[i])
+					term.add(schema.getLiteral(i, random.nextBoolean()));
+			plantedTerms.add(term);
+		}
+		return plantedTerms;
+	}
+
+	/**
+	 *
+	 * @param term
+	 * @param nWords
+	 * @return care words followed by value words of the term.
+	 */
+	private static long[] pack(Term term, int nWords) {
+		long[] packed = new long[nWords << 1];
+		for (int i = 0; i < term.size(); ++i) {
+			int index = term.get(i).getIndex();
+			packed[index >>> 6] |= 1L << index;
+			if (term.get(i).isNormal())
+				packed[nWords+(index >>> 6)] |= 1L << index;
+		}
+		return packed;
+	}
+
+	/**
+	 *
+	 * @return {@code true} if any planted term covers the row.
+	 */
+	private static boolean isCovered(long[][] planted, long[] rows, int offset, int nWords) {
+		for (long[] term : planted) {
+			boolean covers = true;
+			for (int w = 0; w < nWords && covers; ++w)
+				covers = ((rows[offset+w] ^ term[nWords+w]) & term[w]) == 0;
+			if (covers) return true;
+		}
+		return false;
+	}
+
+}
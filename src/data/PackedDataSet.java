@@ -0,0 +1,214 @@
+package data;
+
+import java.util.Arrays;
+
+import core.Schema;
+import core.Term;
+import core.TermList;
+
+/**
+ * A compact crisp data set. Every minterm is a row of bits, one bit per
+ * variable (whether the variable is in normal form), and rows are stored
+ * back to back in one {@code long[]}.
+ * </br>
+ * A minterm has a weight, the number of identical minterms it stands for in a
+ * compressed data set (see {@link TruthTable}).
+ * </br>
+ * A data set is not thread-safe.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class PackedDataSet {
+	private final Schema schema;
+	private final int nWords;			// number of 64-bit words per row
+	private long[] rows;				// row-major bits of every minterm
+	private int[] weights;				// (row : weight), or null if all 1
+	private int nRows;
+
+	public PackedDataSet(Schema schema) {
+		this.schema = schema;
+		this.nWords = (schema.size()+63) >>> 6;
+		this.rows = new long[Math.max(nWords, 1) * 16];
+		this.nRows = 0;
+	}
+
+	/**
+	 * A data set of minterms with every variable in compliment form, to be
+	 * filled with {@link #set(int, int, boolean)}. Distinct rows never share
+	 * a word, so distinct rows can be set by distinct threads.
+	 *
+	 * @param schema
+	 * @param nRows number of minterms.
+	 */
+	public PackedDataSet(Schema schema, int nRows) {
+		this.schema = schema;
+		this.nWords = (schema.size()+63) >>> 6;
+		if ((long) nRows*nWords > Integer.MAX_VALUE-8)
+			throw new OutOfMemoryError("data set is too large.");
+		this.rows = new long[Math.max(nRows*nWords, 1)];
+		this.nRows = nRows;
+	}
+
+	/**
+	 * Appends a minterm.
+	 *
+	 * @param row bits of the minterm, of at least {@link #words()} words.
+	 */
+	public void add(long[] row) {
+		add(row, 0);
+	}
+
+	/**
+	 * Appends a minterm.
+	 *
+	 * @param words
+	 * @param offset start of the minterm in the array.
+	 */
+	public void add(long[] words, int offset) {
+		add(words, offset, 1);
+	}
+
+	/**
+	 * Appends a minterm.
+	 *
+	 * @param words
+	 * @param offset start of the minterm in the array.
+	 * @param weight number of identical minterms, at least 1.
+	 */
+	public void add(long[] words, int offset, int weight) {
+		if (weight < 1)
+			throw new IllegalArgumentException("weight must be at least 1.");
+		ensureCapacity(nRows+1);
+		System.arraycopy(words, offset, rows, nRows*nWords, nWords);
+		if (weight != 1 || weights != null) {
+			ensureWeights();
+			weights[nRows] = weight;
+		}
+		++nRows;
+	}
+
+	/**
+	 * Appends all minterms of another data set with the same schema.
+	 *
+	 * @param dataSet
+	 */
+	public void addAll(PackedDataSet dataSet) {
+		if (dataSet.nWords != nWords)
+			throw new IllegalArgumentException("data sets must have the same schema.");
+		ensureCapacity(nRows+dataSet.nRows);
+		System.arraycopy(dataSet.rows, 0, rows, nRows*nWords, dataSet.nRows*nWords);
+		if (dataSet.weights != null || weights != null) {
+			ensureWeights();
+			for (int i = 0; i < dataSet.nRows; ++i)
+				weights[nRows+i] = dataSet.getWeight(i);
+		}
+		nRows += dataSet.nRows;
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @param index variable index.
+	 * @return {@code true} if the variable is in normal form in the minterm.
+	 */
+	public boolean get(int row, int index) {
+		return (rows[row*nWords + (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @param index variable index.
+	 * @param isNormal
+	 */
+	public void set(int row, int index, boolean isNormal) {
+		if (isNormal)
+			rows[row*nWords + (index >>> 6)] |= 1L << index;
+		else
+			rows[row*nWords + (index >>> 6)] &= ~(1L << index);
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @return number of identical minterms the minterm stands for.
+	 */
+	public int getWeight(int row) {
+		return (weights == null) ? 1 : weights[row];
+	}
+
+	/**
+	 *
+	 * @return sum of the weights of all minterms.
+	 */
+	public long totalWeight() {
+		if (weights == null) return nRows;
+		long totalWeight = 0;
+		for (int i = 0; i < nRows; ++i)
+			totalWeight += weights[i];
+		return totalWeight;
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @param w
+	 * @return a 64-bit word of a minterm.
+	 */
+	public long word(int row, int w) { return rows[row*nWords + w]; }
+
+	/**
+	 *
+	 * @param row
+	 * @return the minterm as a term.
+	 */
+	public Term getTerm(int row) {
+		int nVariables = schema.size();
+		Term term = new Term();
+		term.ensureCapacity(nVariables);
+		for (int i = 0; i < nVariables; ++i)
+			term.add(schema.getLiteral(i, get(row, i)));
+		term.setWeight(getWeight(row));
+		return term;
+	}
+
+	/**
+	 * Converts the data set into a {@link TermList}. Minterms share the
+	 * canonical literals of the schema.
+	 *
+	 * @return
+	 */
+	public TermList toTermList() {
+		TermList termList = new TermList();
+		termList.ensureCapacity(nRows);
+		for (int row = 0; row < nRows; ++row)
+			termList.add(getTerm(row));
+		return termList;
+	}
+
+	private void ensureCapacity(int nNewRows) {
+		if ((long) nNewRows*nWords <= rows.length) return;
+		long capacity = Math.max((long) nNewRows*nWords, (long) rows.length << 1);
+		if (capacity > Integer.MAX_VALUE-8)
+			throw new OutOfMemoryError("data set is too large.");
+		rows = Arrays.copyOf(rows, (int) capacity);
+		if (weights != null)
+			weights = Arrays.copyOf(weights, (int) (capacity/Math.max(nWords, 1)));
+	}
+
+	/**
+	 * Switches from implicit weights of 1 to explicit weights.
+	 */
+	private void ensureWeights() {
+		if (weights != null) return;
+		weights = new int[rows.length/Math.max(nWords, 1)];
+		Arrays.fill(weights, 0, nRows, 1);
+	}
+
+	public Schema getSchema() { return schema; }
+	public int size() { return nRows; }
+	public int words() { return nWords; }
+	public boolean isEmpty() { return nRows == 0; }
+
+}
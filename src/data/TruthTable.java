@@ -0,0 +1,128 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import core.PackedTerm;
+import core.Term;
+import core.TermList;
+
+/**
+ * Truth table compression. Identical minterms (configurations) of a data set
+ * are collapsed into one minterm, weighted by the number of identical
+ * minterms. Heuristics count minterms by their weights, so results are the
+ * same as for the uncompressed data set.
+ * </br>
+ * Minterms keep the order of their first occurrence.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class TruthTable {
+
+	/**
+	 *
+	 * @param dataSet
+	 * @return data set of unique minterms, weighted by their number of
+	 * 	occurrences.
+	 */
+	public static TermList compress(TermList dataSet) {
+		Map<PackedTerm, Term> uniqueMinterms = new LinkedHashMap<PackedTerm, Term>();
+		for (Term minterm : dataSet) {
+			PackedTerm key = minterm.getPackedTerm();
+			Term uniqueMinterm = uniqueMinterms.get(key);
+			if (uniqueMinterm == null) {
+				uniqueMinterms.put(key, new Term(minterm));
+			} else {
+				uniqueMinterm.setWeight(Math.addExact(uniqueMinterm.getWeight(),
+						minterm.getWeight()));
+			}
+		}
+		return new TermList(uniqueMinterms.values());
+	}
+
+	/**
+	 *
+	 * @param dataSet
+	 * @return data set of unique minterms, weighted by their number of
+	 * 	occurrences.
+	 */
+	public static PackedDataSet compress(PackedDataSet dataSet) {
+		int nWords = dataSet.words();
+		Map<Row, Integer> index = new HashMap<Row, Integer>();	// (minterm : unique row)
+		List<Integer> firstRows = new ArrayList<Integer>();
+		int[] weights = new int[16];
+		for (int i = 0; i < dataSet.size(); ++i) {
+			Row row = new Row(dataSet, i);
+			Integer unique = index.get(row);
+			if (unique == null) {
+				unique = firstRows.size();
+				index.put(row, unique);
+				firstRows.add(i);
+				if (unique == weights.length)
+					weights = Arrays.copyOf(weights, weights.length << 1);
+			}
+			weights[unique] = Math.addExact(weights[unique], dataSet.getWeight(i));
+		}
+		PackedDataSet compressedDataSet = new PackedDataSet(dataSet.getSchema());
+		long[] words = new long[nWords];
+		for (int unique = 0; unique < firstRows.size(); ++unique) {
+			int row = firstRows.get(unique);
+			for (int w = 0; w < nWords; ++w)
+				words[w] = dataSet.word(row, w);
+			compressedDataSet.add(words, 0, weights[unique]);
+		}
+		return compressedDataSet;
+	}
+
+	/**
+	 *
+	 * @param data
+	 * @return data with a compressed onset and offset.
+	 */
+	public static Data compress(Data data) {
+		return new Data(data.getSchema(), compress(data.getOnset()),
+				compress(data.getOffset()));
+	}
+
+	/**
+	 * A minterm of a packed data set, as a hash key.
+	 */
+	private static final class Row {
+		private final PackedDataSet dataSet;
+		private final int row;
+		private final int hashCode;
+
+		Row(PackedDataSet dataSet, int row) {
+			this.dataSet = dataSet;
+			this.row = row;
+			int hashCode = 1;
+			for (int w = 0; w < dataSet.words(); ++w)
+				hashCode = 31 * hashCode + Long.hashCode(dataSet.word(row, w));
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public int hashCode() { return hashCode; }
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Row))
+				return false;
+			Row other = (Row) obj;
+			if (hashCode != other.hashCode)
+				return false;
+			for (int w = 0; w < dataSet.words(); ++w)
+				if (dataSet.word(row, w) != other.dataSet.word(other.row, w))
+					return false;
+			return true;
+		}
+	}
+
+}
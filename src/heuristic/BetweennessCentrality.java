@@ -0,0 +1,301 @@
+package heuristic;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import core.Variable;
+
+/**
+ * <h4>Betweenness Centrality</h4>
+ * <p>
+ * In graph theory, the betweenness centrality of a node is the sum, over all
+ * pairs of other nodes, of the fraction of shortest paths between the pair
+ * that pass through said node.
+ * </p>
+ * <p>
+ * Every variable from the data set represents a node in a graph, and edges are
+ * weighted by co-occurrence (see {@link CoOccurrence}). Strongly connected
+ * variables should be close, so the distance of an edge is its weight
+ * inverted, <code>1+max-weight</code>, as in the Python version.
+ * </br>
+ * Betweenness is computed with Brandes' algorithm: one Dijkstra search from
+ * every source node, followed by accumulating the dependencies of the source
+ * in reverse order of distance. The graph, search and accumulation are all in
+ * primitive arrays. Sources are split into blocks, which are searched in
+ * parallel, each with its own workspace and accumulator.
+ * </br>
+ * For very large graphs, betweenness can be approximated from a random sample
+ * of source nodes (pivots), scaled by the number of nodes over the number of
+ * pivots (Brandes and Pich, 2007).
+ *
+ * @author lvl2pillow
+ *
+ */
+public class BetweennessCentrality implements HeuristicStrategy<Variable, Double> {
+	private static final int BLOCKS_PER_THREAD = 4;
+
+	private final int nVariables;
+	private final int[] offsets;		// (node : start of its edges), CSR
+	private final int[] targets;		// (edge : target node)
+	private final long[] distances;		// (edge : distance)
+	private final double[] betweenness;	// (variable index : betweenness centrality)
+
+	/**
+	 * Exact betweenness centrality.
+	 *
+	 * @param adjacencyMatrix upper half of an adjacency matrix of non-negative
+	 * 	edge weights (see {@link CoOccurrence#getAdjacencyMatrix()}). A weight
+	 * 	of 0 is no edge.
+	 */
+	public BetweennessCentrality(int[][] adjacencyMatrix) {
+		this(adjacencyMatrix, adjacencyMatrix.length, 0);
+	}
+
+	/**
+	 * Betweenness centrality approximated from a sample of source nodes. If
+	 * the number of pivots is at least the number of nodes, the betweenness
+	 * is exact.
+	 *
+	 * @param adjacencyMatrix upper half of an adjacency matrix of non-negative
+	 * 	edge weights.
+	 * @param nPivots number of sampled source nodes, at least 1.
+	 * @param seed seed of the sample.
+	 */
+	public BetweennessCentrality(int[][] adjacencyMatrix, int nPivots, long seed) {
+		if (nPivots < 1)
+			throw new IllegalArgumentException("number of pivots must be at least 1.");
+		this.nVariables = adjacencyMatrix.length;
+		// edges in both directions, compressed sparse rows
+		int max = 0;
+		int[] degree = new int[nVariables];
+		for (int i = 0; i < nVariables; ++i) {
+			for (int j = i+1; j < nVariables; ++j) {
+				int weight = adjacencyMatrix[i][j];
+				if (weight < 0)
+					throw new IllegalArgumentException("edge weights must not be negative.");
+				if (weight > 0) {
+					++degree[i];
+					++degree[j];
+					max = Math.max(max, weight);
+				}
+			}
+		}
+		this.offsets = new int[nVariables+1];
+		for (int i = 0; i < nVariables; ++i)
+			offsets[i+1] = offsets[i]+degree[i];
+		this.targets = new int[offsets[nVariables]];
+		this.distances = new long[offsets[nVariables]];
+		int[] next = new int[nVariables];
+		System.arraycopy(offsets, 0, next, 0, nVariables);
+		for (int i = 0; i < nVariables; ++i) {
+			for (int j = i+1; j < nVariables; ++j) {
+				int weight = adjacencyMatrix[i][j];
+				if (weight == 0) continue;
+				// invert weight to distance, offset by 1
+				long distance = 1L+max-weight;
+				targets[next[i]] = j;
+				distances[next[i]++] = distance;
+				targets[next[j]] = i;
+				distances[next[j]++] = distance;
+			}
+		}
+		this.betweenness = betweenness(pivots(nPivots, seed));
+	}
+
+	/**
+	 *
+	 * @param nPivots
+	 * @param seed
+	 * @return every node, or a random sample of nPivots nodes.
+	 */
+	private int[] pivots(int nPivots, long seed) {
+		int[] nodes = new int[nVariables];
+		for (int i = 0; i < nVariables; ++i)
+			nodes[i] = i;
+		if (nPivots >= nVariables) return nodes;
+		// partial Fisher-Yates shuffle
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = 0; i < nPivots; ++i) {
+			int j = i+random.nextInt(nVariables-i);
+			int node = nodes[i];
+			nodes[i] = nodes[j];
+			nodes[j] = node;
+		}
+		int[] pivots = new int[nPivots];
+		System.arraycopy(nodes, 0, pivots, 0, nPivots);
+		return pivots;
+	}
+
+	/**
+	 *
+	 * @param sources
+	 * @return betweenness centrality of every node, from the sources.
+	 */
+	private double[] betweenness(int[] sources) {
+		int nSources = sources.length;
+		int nBlocks = Math.max(1, Math.min(nSources,
+				BLOCKS_PER_THREAD*Runtime.getRuntime().availableProcessors()));
+		// per-block accumulators, summed in block order
+		double[][] blocks = new double[nBlocks][];
+		IntStream.range(0, nBlocks).parallel().forEach(block -> {
+			Search search = new Search();
+			int from = (int) ((long) nSources*block/nBlocks);
+			int to = (int) ((long) nSources*(block+1)/nBlocks);
+			for (int i = from; i < to; ++i)
+				search.accumulate(sources[i]);
+			blocks[block] = search.betweenness;
+		});
+		double[] betweenness = new double[nVariables];
+		for (double[] block : blocks)
+			for (int i = 0; i < nVariables; ++i)
+				betweenness[i] += block[i];
+		// every pair of an undirected graph is counted in both directions
+		double scale = (nSources == 0) ? 0.0 : (double) nVariables/nSources/2.0;
+		for (int i = 0; i < nVariables; ++i)
+			betweenness[i] *= scale;
+		return betweenness;
+	}
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @return betweenness centrality of the variable.
+	 */
+	public double getBetweenness(int index) { return betweenness[index]; }
+
+	/**
+	 *
+	 * @return betweenness centrality of every variable, by variable index. The
+	 * 	returned array must not be modified.
+	 */
+	public double[] getBetweenness() { return betweenness; }
+
+	/**
+	 *
+	 * @return number of variables.
+	 */
+	public int size() { return nVariables; }
+
+	@Override
+	public Map<Variable, Double> getHeuristic() {
+		Map<Variable, Double> betweennessCentrality = new HashMap<Variable, Double>();
+		for (int i = 0; i < nVariables; ++i)
+			betweennessCentrality.put(new Variable(i), betweenness[i]);
+		return betweennessCentrality;
+	}
+
+	/**
+	 * Workspace of single-source searches, reused for every source of a block.
+	 */
+	private final class Search {
+		private final double[] betweenness = new double[nVariables];
+		private final long[] distance = new long[nVariables];
+		private final double[] sigma = new double[nVariables];	// number of shortest paths
+		private final double[] delta = new double[nVariables];	// dependency of the source
+		private final int[] order = new int[nVariables];		// settled nodes, by distance
+		// binary heap of nodes by distance, with decrease-key
+		private final int[] heap = new int[nVariables];
+		private final int[] position = new int[nVariables];	// (node : index in heap, or -1)
+		private int heapSize;
+
+		Search() {
+			Arrays.fill(distance, Long.MAX_VALUE);
+			Arrays.fill(position, -1);
+		}
+
+		/**
+		 * Adds the dependencies of a source to the betweenness.
+		 *
+		 * @param source
+		 */
+		void accumulate(int source) {
+			// Dijkstra search, counting shortest paths
+			int nSettled = 0;
+			distance[source] = 0;
+			sigma[source] = 1.0;
+			push(source);
+			while (heapSize > 0) {
+				int v = pop();
+				long d = distance[v];
+				order[nSettled++] = v;
+				for (int e = offsets[v]; e < offsets[v+1]; ++e) {
+					int w = targets[e];
+					long alternative = d+distances[e];
+					if (alternative < distance[w]) {
+						distance[w] = alternative;
+						sigma[w] = sigma[v];
+						push(w);
+					} else if (alternative == distance[w]) {
+						sigma[w] += sigma[v];
+					}
+				}
+			}
+			// dependencies, in reverse order of distance
+			for (int i = nSettled-1; i >= 0; --i) {
+				int w = order[i];
+				double coefficient = (1.0+delta[w])/sigma[w];
+				for (int e = offsets[w]; e < offsets[w+1]; ++e) {
+					int v = targets[e];
+					// v is a predecessor of w
+					if (distance[v]+distances[e] == distance[w])
+						delta[v] += sigma[v]*coefficient;
+				}
+				if (w != source)
+					betweenness[w] += delta[w];
+			}
+			// reset the settled nodes only
+			for (int i = 0; i < nSettled; ++i) {
+				int v = order[i];
+				distance[v] = Long.MAX_VALUE;
+				sigma[v] = 0.0;
+				delta[v] = 0.0;
+			}
+		}
+
+		/**
+		 * Adds a node to the heap, or moves it up after its distance decreased.
+		 *
+		 * @param node
+		 */
+		private void push(int node) {
+			int i = position[node];
+			if (i == -1) i = heapSize++;
+			long d = distance[node];
+			while (i > 0) {
+				int parent = (i-1) >>> 1;
+				if (distance[heap[parent]] <= d) break;
+				heap[i] = heap[parent];
+				position[heap[i]] = i;
+				i = parent;
+			}
+			heap[i] = node;
+			position[node] = i;
+		}
+
+		private int pop() {
+			int top = heap[0];
+			position[top] = -1;
+			int node = heap[--heapSize];
+			if (heapSize == 0) return top;
+			long d = distance[node];
+			int i = 0;
+			while (true) {
+				int child = 2*i+1;
+				if (child >= heapSize) break;
+				if (child+1 < heapSize && distance[heap[child+1]] < distance[heap[child]])
+					++child;
+				if (distance[heap[child]] >= d) break;
+				heap[i] = heap[child];
+				position[heap[i]] = i;
+				i = child;
+			}
+			heap[i] = node;
+			position[node] = i;
+			return top;
+		}
+	}
+
+}
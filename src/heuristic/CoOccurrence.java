@@ -0,0 +1,117 @@
+package heuristic;
+
+import java.util.stream.IntStream;
+
+import core.Literal;
+import core.Term;
+import core.TermList;
+
+/**
+ * Co-occurrence counts of a data set: for every pair of variables, the number
+ * of minterms in which both variables are in normal form. This is the edge
+ * weight between the variables in the graph of the data set (see
+ * {@link Connectivity#adjacencyMatrix(TermList)}).
+ * </br>
+ * Every variable is stored as a bitset of the minterms in which it is normal,
+ * so a pair is counted by AND and popcount over 64 minterms at a time. Weights
+ * of a compressed data set are split into bit planes, bitsets of the minterms
+ * with a given bit of their weight set, so weighted counts are also AND and
+ * popcount. Pairs are counted in parallel over the variables.
+ * </br>
+ * Counts are computed once per data set, and are shared by every heuristic
+ * that needs them.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class CoOccurrence {
+	private final int nVariables;
+	private final int nWords;				// number of 64-bit words per bitset
+	private final long[][] columns;			// (variable index : bitset of minterms)
+	private final long[][] weightPlanes;	// (bit : bitset of minterms with bit of weight set)
+	private final int[][] counts;			// upper half, (i : (j>i : count))
+
+	/**
+	 *
+	 * @param dataSet
+	 */
+	public CoOccurrence(TermList dataSet) {
+		int nRows = dataSet.size();
+		this.nVariables = dataSet.isEmpty() ? 0 : dataSet.get(0).size();
+		this.nWords = (nRows+63) >>> 6;
+		this.columns = new long[nVariables][nWords];
+		int maxWeight = 1;
+		for (int row = 0; row < nRows; ++row) {
+			Term minterm = dataSet.get(row);
+			maxWeight = Math.max(maxWeight, minterm.getWeight());
+			for (Literal literal : minterm)
+				if (literal.isNormal() && literal.getIndex() < nVariables)
+					columns[literal.getIndex()][row >>> 6] |= 1L << row;
+		}
+		// weights as bit planes
+		int nPlanes = 32-Integer.numberOfLeadingZeros(maxWeight);
+		this.weightPlanes = new long[nPlanes][nWords];
+		for (int row = 0; row < nRows; ++row) {
+			int weight = dataSet.get(row).getWeight();
+			for (int bit = 0; bit < nPlanes; ++bit)
+				if ((weight & (1 << bit)) != 0)
+					weightPlanes[bit][row >>> 6] |= 1L << row;
+		}
+		this.counts = new int[nVariables][nVariables];
+		IntStream.range(0, nVariables).parallel().forEach(i -> {
+			for (int j = i+1; j < nVariables; ++j)
+				counts[i][j] = count(columns[i], columns[j]);
+		});
+	}
+
+	/**
+	 *
+	 * @return weighted number of minterms in both bitsets.
+	 */
+	private int count(long[] a, long[] b) {
+		int count = 0;
+		for (int bit = 0; bit < weightPlanes.length; ++bit) {
+			long[] plane = weightPlanes[bit];
+			int planeCount = 0;
+			for (int w = 0; w < nWords; ++w)
+				planeCount += Long.bitCount(a[w] & b[w] & plane[w]);
+			count += planeCount << bit;
+		}
+		return count;
+	}
+
+	/**
+	 *
+	 * @param i variable index.
+	 * @param j variable index.
+	 * @return number of minterms in which both variables are in normal form.
+	 */
+	public int count(int i, int j) {
+		if (i == j) return 0;
+		return (i < j) ? counts[i][j] : counts[j][i];
+	}
+
+	/**
+	 * Only the upper half of the matrix is filled (undirected graph), as in
+	 * {@link Connectivity#adjacencyMatrix(TermList)}.
+	 *
+	 * @return adjacency matrix of the data set. The returned array must not be
+	 * 	modified.
+	 */
+	public int[][] getAdjacencyMatrix() { return counts; }
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @return bitset of the minterms in which the variable is in normal form.
+	 * 	The returned array must not be modified.
+	 */
+	public long[] getColumn(int index) { return columns[index]; }
+
+	/**
+	 *
+	 * @return number of variables.
+	 */
+	public int size() { return nVariables; }
+
+}
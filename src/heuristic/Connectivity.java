@@ -19,7 +19,10 @@ import core.Term;
  * The connectivity of a variable is the number of distinct edges between the 
  * variable and any variable from a specified term. The <i>overall connectivity</i>
  * of a variable is the connectivity from the onset subtract the connectivity
- * from the offset.
+ * from the offset. Variables of the term have a connectivity of 0.
+ * </p>
+ * <p>
+ * For many terms over the same data set, use a {@link ConnectivityEvaluator}.
  * </p>
  * 
  * @see <a href="http://en.wikipedia.org/wiki/Connectivity_(graph_theory)">Connectivity</a>
@@ -31,55 +34,48 @@ public class Connectivity implements HeuristicStrategy<Variable, Integer> {
 	
 	public Connectivity(Set<Variable> variables, Term term, 
 			TermList onset, TermList offset) {
-		this.literalConnectivity = connectivity(variables, term, onset, offset);
-		
+		this(variables, term, new CoOccurrence(onset), new CoOccurrence(offset));
 	}
 	
-	private Map<Variable, Integer> connectivity(Set<Variable> variables, 
-			Term term, TermList onset, TermList offset) {
-		Map<Variable, Integer> onsetLiteralConnectivity = 
-				connectivity(variables, term, onset);
-		Map<Variable, Integer> offsetLiteralConnectivity = 
-				connectivity(variables, term, offset);
-		for (Variable variable : onsetLiteralConnectivity.keySet()) {
-			// onset-offset
-			onsetLiteralConnectivity.put(variable, 
-					onsetLiteralConnectivity.get(variable)-
-					offsetLiteralConnectivity.get(variable));
-		}
-		return onsetLiteralConnectivity;
+	/**
+	 * 
+	 * @param variables set of all variables.
+	 * @param term current term.
+	 * @param onset co-occurrence counts of the onset, computed once.
+	 * @param offset co-occurrence counts of the offset, computed once.
+	 */
+	public Connectivity(Set<Variable> variables, Term term, 
+			CoOccurrence onset, CoOccurrence offset) {
+		this(variables, new ConnectivityEvaluator(onset, offset), term);
 	}
 	
 	/**
 	 * 
 	 * @param variables set of all variables.
+	 * @param evaluator evaluator of the data set, built once. The evaluator
+	 * 	itself is not modified.
 	 * @param term current term.
-	 * @param dataSet
-	 * @return mapping of variables to connectivity with the current term.
+	 */
+	public Connectivity(Set<Variable> variables, ConnectivityEvaluator evaluator, 
+			Term term) {
+		this.literalConnectivity = connectivity(variables, 
+				new ConnectivityEvaluator(evaluator), term);
+	}
+	
+	/**
+	 * 
+	 * @param variables set of all variables.
+	 * @param evaluator
+	 * @param term current term.
+	 * @return mapping of variables to overall connectivity with the current
+	 * 	term, onset subtract offset.
 	 */
 	private Map<Variable, Integer> connectivity(Set<Variable> variables, 
-			Term term, TermList dataSet) {
-		// initialize
+			ConnectivityEvaluator evaluator, Term term) {
 		Map<Variable, Integer> literalConnectivity = new HashMap<Variable, Integer>();
+		evaluator.setTerm(term);
 		for (Variable variable : variables)
-			literalConnectivity.put(variable, 0);
-		// adjacency matrix
-		int[][] adjacencyMatrix = adjacencyMatrix(dataSet);
-		// count edges
-		for (int i = 0; i < adjacencyMatrix.length; ++i) {
-			for (int j = 0; j < adjacencyMatrix.length; ++j) {
-				Variable I = new Variable(i);
-				Variable J = new Variable(j);
-				if (term.contains(I) && term.contains(J));
-						// do nothing
-				else if (term.contains(I))
-					literalConnectivity.put(J, 
-							literalConnectivity.get(J)+adjacencyMatrix[i][j]);
-				else if (term.contains(J))
-					literalConnectivity.put(I, 
-							literalConnectivity.get(I)+adjacencyMatrix[i][j]);
-			}
-		}
+			literalConnectivity.put(variable, evaluator.getConnectivity(variable.getIndex()));
 		return literalConnectivity;
 	}
 	
@@ -92,6 +88,11 @@ public class Connectivity implements HeuristicStrategy<Variable, Integer> {
 	 * <p>
 	 * The values in adjacency matrix represents the edge weight of the 
 	 * corresponding edge between the two nodes. 0 value represents no edge.
+	 * Minterms of a compressed data set count by their weights.
+	 * </p>
+	 * <p>
+	 * Pairs are counted bit-parallel by {@link CoOccurrence}. To share the
+	 * counts between heuristics, use a {@link CoOccurrence} instead.
 	 * </p>
 	 * <p>
 	 * <b>NOTE:</b> Only half of the matrix is filled (undirected graph).
@@ -101,19 +102,7 @@ public class Connectivity implements HeuristicStrategy<Variable, Integer> {
 	 * @return
 	 */
 	public static int[][] adjacencyMatrix(TermList dataSet) {
-		int nVariables = dataSet.get(0).size();
-		int[][] adjacencyMatrix = new int[nVariables][nVariables];
-		for (Term minterm : dataSet) {
-			for (int i = 0; i < nVariables; ++i) {
-				for (int j = i+1; j < nVariables; ++j) {
-					// pair of variables in minterm
-					if (minterm.get(i).isNormal() && minterm.get(j).isNormal())
-						// increment corresponding edge weight
-						++adjacencyMatrix[i][j];
-				}
-			}
-		}
-		return adjacencyMatrix;
+		return new CoOccurrence(dataSet).getAdjacencyMatrix();
 	}
 
 	@Override
@@ -0,0 +1,156 @@
+package heuristic;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import core.Literal;
+import core.Schema;
+import core.Term;
+import core.Variable;
+
+/**
+ * Incrementally maintained overall {@link Connectivity}. The evaluator is
+ * built once for a data set from the onset and offset {@link CoOccurrence},
+ * as one symmetric matrix of onset subtract offset edge weights.
+ * </br>
+ * The connectivity of every variable with the current term is the sum of the
+ * matrix rows of the term's variables, so adding or removing a literal of the
+ * term costs one matrix row, O(n), and a whole term costs O(|term|*n).
+ * Variables of the term have a connectivity of 0.
+ * </br>
+ * An evaluator is not thread-safe. Copies share the matrix, so every thread
+ * can cheaply have its own.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class ConnectivityEvaluator implements HeuristicStrategy<Variable, Integer> {
+	private final int nVariables;
+	private final int[][] weights;		// symmetric, onset-offset edge weights
+	private final Schema schema;		// canonical variables
+	private final int[] connectivity;	// (variable index : sum of weights with term)
+	private final boolean[] isInTerm;	// (variable index : variable is in term)
+
+	/**
+	 *
+	 * @param onset co-occurrence counts of the onset.
+	 * @param offset co-occurrence counts of the offset.
+	 */
+	public ConnectivityEvaluator(CoOccurrence onset, CoOccurrence offset) {
+		this(onset, offset, Schema.of(Math.max(onset.size(), offset.size())));
+	}
+
+	/**
+	 *
+	 * @param onset co-occurrence counts of the onset.
+	 * @param offset co-occurrence counts of the offset.
+	 * @param schema schema of the data set, with the canonical variables.
+	 */
+	public ConnectivityEvaluator(CoOccurrence onset, CoOccurrence offset, Schema schema) {
+		this.nVariables = Math.max(onset.size(), offset.size());
+		this.schema = (schema.size() >= nVariables) ? schema : Schema.of(nVariables);
+		this.weights = new int[nVariables][nVariables];
+		for (int i = 0; i < nVariables; ++i) {
+			for (int j = i+1; j < nVariables; ++j) {
+				int weight = count(onset, i, j)-count(offset, i, j);
+				weights[i][j] = weight;
+				weights[j][i] = weight;
+			}
+		}
+		this.connectivity = new int[nVariables];
+		this.isInTerm = new boolean[nVariables];
+	}
+
+	/**
+	 * A copy with an empty term, sharing the matrix.
+	 *
+	 * @param evaluator
+	 */
+	public ConnectivityEvaluator(ConnectivityEvaluator evaluator) {
+		this.nVariables = evaluator.nVariables;
+		this.weights = evaluator.weights;
+		this.schema = evaluator.schema;
+		this.connectivity = new int[nVariables];
+		this.isInTerm = new boolean[nVariables];
+	}
+
+	private static int count(CoOccurrence coOccurrence, int i, int j) {
+		return (j < coOccurrence.size()) ? coOccurrence.count(i, j) : 0;
+	}
+
+	/**
+	 * Moves the evaluator to a term.
+	 *
+	 * @param term
+	 */
+	public void setTerm(Term term) {
+		clear();
+		for (Literal literal : term)
+			add(literal.getIndex());
+	}
+
+	/**
+	 * Empties the term.
+	 */
+	public void clear() {
+		Arrays.fill(connectivity, 0);
+		Arrays.fill(isInTerm, false);
+	}
+
+	/**
+	 * Adds a variable to the term.
+	 *
+	 * @param index variable index.
+	 */
+	public void add(int index) {
+		if (index >= nVariables || isInTerm[index]) return;
+		isInTerm[index] = true;
+		int[] row = weights[index];
+		for (int j = 0; j < nVariables; ++j)
+			connectivity[j] += row[j];
+	}
+
+	/**
+	 * Removes a variable from the term.
+	 *
+	 * @param index variable index.
+	 */
+	public void remove(int index) {
+		if (index >= nVariables || !isInTerm[index]) return;
+		isInTerm[index] = false;
+		int[] row = weights[index];
+		for (int j = 0; j < nVariables; ++j)
+			connectivity[j] -= row[j];
+	}
+
+	/**
+	 *
+	 * @param index variable index.
+	 * @return overall connectivity of the variable with the term, 0 if the
+	 * 	variable is in the term.
+	 */
+	public int getConnectivity(int index) {
+		if (index >= nVariables || isInTerm[index]) return 0;
+		return connectivity[index];
+	}
+
+	/**
+	 *
+	 * @return number of variables.
+	 */
+	public int size() { return nVariables; }
+
+	/**
+	 * @return mapping of variables to their overall connectivity with the
+	 * 	term, same as {@link Connectivity}.
+	 */
+	@Override
+	public Map<Variable, Integer> getHeuristic() {
+		Map<Variable, Integer> literalConnectivity = new HashMap<Variable, Integer>();
+		for (int i = 0; i < nVariables; ++i)
+			literalConnectivity.put(schema.getVariable(i), getConnectivity(i));
+		return literalConnectivity;
+	}
+
+}
@@ -18,20 +18,30 @@ import core.TermList;
  * The <i>overall degree centrality</i> of a variable is the degree centrality 
  * of a variable from the onset subtract the degree centrality of the same 
  * variable from the offset.
+ * </br>
+ * The degree centrality is a dataset-level heuristic, shared through a
+ * {@link HeuristicContext}.
  * 
  * @author lvl2pillow
  *
  */
 public class DegreeCentrality implements HeuristicStrategy<Variable, Integer> {
-	private static Map<Variable, Integer> degreeCentrality;
+	private final Map<Variable, Integer> degreeCentrality;
 	
 	public DegreeCentrality(Set<Variable> variables, TermList onset, TermList offset) {
-		if (degreeCentrality == null) {
-			degreeCentrality = degreeCentrality(variables, onset, offset);
-		}
+		this(variables, new CoOccurrence(onset), new CoOccurrence(offset));
+	}
+	
+	/**
+	 * 
+	 * @param variables set of all variables.
+	 * @param onset co-occurrence counts of the onset, computed once.
+	 * @param offset co-occurrence counts of the offset, computed once.
+	 */
+	public DegreeCentrality(Set<Variable> variables, CoOccurrence onset, CoOccurrence offset) {
+		this.degreeCentrality = degreeCentrality(variables, onset, offset);
 	}
 
-	@SuppressWarnings("static-access")
 	@Override
 	public Map<Variable, Integer> getHeuristic() { return this.degreeCentrality; }
 	
@@ -42,29 +52,27 @@ public class DegreeCentrality implements HeuristicStrategy<Variable, Integer> {
 	 * @return mapping of every literal with its degree centrality.
 	 */
 	private static Map<Variable, Integer> degreeCentrality(Set<Variable> variables, 
-			TermList onset, TermList offset) {
+			CoOccurrence onset, CoOccurrence offset) {
 		Map<Variable, Integer> degreeCentrality = new HashMap<Variable, Integer>();
-		for (Variable variable : variables)
-			degreeCentrality.put(variable, 0);
 		int[] onsetDegreeCentrality = degreeCentrality(variables, onset);
 		int[] offsetDegreeCentrality = degreeCentrality(variables, offset);
-		for (int i = 0; i < variables.size(); ++i) {
-			degreeCentrality.put(new Variable(i), 
-					onsetDegreeCentrality[i]-offsetDegreeCentrality[i]);
+		for (Variable variable : variables) {
+			int i = variable.getIndex();
+			degreeCentrality.put(variable, (i < variables.size()) ? 
+					onsetDegreeCentrality[i]-offsetDegreeCentrality[i] : 0);
 		}
 		return degreeCentrality;
 	}
 	
 	/**
 	 * 
-	 * @param dataSet
+	 * @param coOccurrence co-occurrence counts of the data set.
 	 * @return the degree centrality of every variable in a data set.
 	 */
-	private static int[] degreeCentrality(Set<Variable> variables, TermList dataSet) {
+	private static int[] degreeCentrality(Set<Variable> variables, CoOccurrence coOccurrence) {
 		int nVariables = variables.size();
 		int[] degreeCentrality = new int[nVariables];
-		// re-using method
-		int[][] adjacencyMatrix = Connectivity.adjacencyMatrix(dataSet);
+		int[][] adjacencyMatrix = coOccurrence.getAdjacencyMatrix();
 		for (int i = 0; i < nVariables; ++i) {
 			for (int j = 0; j < nVariables; ++j) {
 				if (adjacencyMatrix[i][j] == 1) {
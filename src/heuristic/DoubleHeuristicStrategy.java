@@ -0,0 +1,21 @@
+package heuristic;
+
+import core.Literal;
+
+/**
+ * A heuristic of literals as a vector of doubles, indexed by literal code (see
+ * {@link Literal#getCode()}), so it is read without boxing or hashing. It does
+ * not extend {@link HeuristicStrategy}; a strategy may implement both.
+ * 
+ * @author lvl2pillow
+ *
+ */
+public interface DoubleHeuristicStrategy {
+	/**
+	 * The returned array may be shared with the strategy, and must not be 
+	 * modified.
+	 * 
+	 * @return heuristic of every literal, by literal code.
+	 */
+	public double[] getHeuristicVector();
+}
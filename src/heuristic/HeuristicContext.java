@@ -0,0 +1,153 @@
+package heuristic;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import core.Literal;
+import core.LiteralIndex;
+import core.Schema;
+import core.TermList;
+import core.Variable;
+
+/**
+ * Dataset-level heuristics of one analysis. Every heuristic is computed once,
+ * on first use, and is then shared by every phase (CDS, IE, UCP) of the
+ * analysis. Heuristics are computed lazily and thread-safely, so many
+ * analyses, each with its own context, can run in parallel in one JVM.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class HeuristicContext {
+	private final TermList onset;
+	private final TermList offset;
+	private final Lazy<Schema> schema;
+	private final Lazy<Set<Variable>> variables;
+	private final Lazy<LiteralIndex> offsetIndex;
+	private final Lazy<CoOccurrence> onsetCoOccurrence;
+	private final Lazy<CoOccurrence> offsetCoOccurrence;
+	private final Lazy<DegreeCentrality> degreeCentrality;
+	private final Lazy<ConnectivityEvaluator> connectivityEvaluator;
+
+	/**
+	 * The onset and offset must not be modified while the context is in use.
+	 *
+	 * @param onset
+	 * @param offset
+	 */
+	public HeuristicContext(TermList onset, TermList offset) {
+		this.onset = onset;
+		this.offset = offset;
+		this.schema = new Lazy<Schema>(this::schema);
+		this.variables = new Lazy<Set<Variable>>(this::variables);
+		this.offsetIndex = new Lazy<LiteralIndex>(() -> new LiteralIndex(offset));
+		this.onsetCoOccurrence = new Lazy<CoOccurrence>(() -> new CoOccurrence(onset));
+		this.offsetCoOccurrence = new Lazy<CoOccurrence>(() -> new CoOccurrence(offset));
+		this.degreeCentrality = new Lazy<DegreeCentrality>(() -> new DegreeCentrality(
+				getVariables(), getOnsetCoOccurrence(), getOffsetCoOccurrence()));
+		this.connectivityEvaluator = new Lazy<ConnectivityEvaluator>(() ->
+				new ConnectivityEvaluator(getOnsetCoOccurrence(), getOffsetCoOccurrence(), 
+						getSchema()));
+	}
+
+	/**
+	 *
+	 * @param onset
+	 * @param offset
+	 * @param schema schema of the data set, with the canonical literals.
+	 */
+	public HeuristicContext(TermList onset, TermList offset, Schema schema) {
+		this(onset, offset);
+		this.schema.set(schema);
+	}
+
+	/**
+	 *
+	 * @return schema of the data set, from the names of the first minterm.
+	 */
+	private Schema schema() {
+		return Schema.of(onset, offset);
+	}
+
+	/**
+	 *
+	 * @return variables of the onset.
+	 */
+	private Set<Variable> variables() {
+		Set<Variable> variables = new HashSet<Variable>();
+		if (!onset.isEmpty())
+			for (Literal literal : onset.get(0))
+				variables.add(getSchema().getVariable(literal.getIndex()));
+		return Collections.unmodifiableSet(variables);
+	}
+
+	public TermList getOnset() { return onset; }
+	public TermList getOffset() { return offset; }
+
+	/**
+	 *
+	 * @return schema of the data set, which owns the canonical literals.
+	 */
+	public Schema getSchema() { return schema.get(); }
+
+	/**
+	 *
+	 * @return set of all variables.
+	 */
+	public Set<Variable> getVariables() { return variables.get(); }
+
+	/**
+	 *
+	 * @return bitmap index of the offset.
+	 */
+	public LiteralIndex getOffsetIndex() { return offsetIndex.get(); }
+	public CoOccurrence getOnsetCoOccurrence() { return onsetCoOccurrence.get(); }
+	public CoOccurrence getOffsetCoOccurrence() { return offsetCoOccurrence.get(); }
+	public DegreeCentrality getDegreeCentrality() { return degreeCentrality.get(); }
+
+	/**
+	 * The evaluator is shared and must not be modified; every thread should
+	 * work on its own copy, see
+	 * {@link ConnectivityEvaluator#ConnectivityEvaluator(ConnectivityEvaluator)}.
+	 *
+	 * @return connectivity evaluator of the data set, with an empty term.
+	 */
+	public ConnectivityEvaluator getConnectivityEvaluator() {
+		return connectivityEvaluator.get();
+	}
+
+	/**
+	 * A value computed once, on first use, by double-checked locking.
+	 */
+	private static final class Lazy<T> {
+		private final Supplier<T> supplier;
+		private volatile T value;
+
+		Lazy(Supplier<T> supplier) {
+			this.supplier = supplier;
+		}
+
+		/**
+		 * Sets the value, unless it was already computed.
+		 */
+		synchronized void set(T value) {
+			if (this.value == null)
+				this.value = value;
+		}
+
+		T get() {
+			T result = value;
+			if (result == null) {
+				synchronized (this) {
+					result = value;
+					if (result == null)
+						value = result = supplier.get();
+				}
+			}
+			return result;
+		}
+	}
+
+}
@@ -5,13 +5,10 @@ import java.util.*;
 import core.Term;
 
 public class ImplicantLength implements HeuristicStrategy<Term, Integer> {
-	// auto-generated
-	private static Map<Term, Integer> implicantLength = 
-			new HashMap<Term, Integer>();
+	private final Map<Term, Integer> implicantLength;
 	
 	public ImplicantLength(Collection<Term> primeImplicants) {
-		if (implicantLength == null)
-			implicantLength = implicantLength(primeImplicants);
+		this.implicantLength = implicantLength(primeImplicants);
 	}
 	
 	private Map<Term, Integer> implicantLength(Collection<Term> primeImplicants) {
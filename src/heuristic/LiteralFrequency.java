@@ -9,7 +9,11 @@ import core.TermList;
 
 /**
  * The literal frequency of a literal is the number of occurrences of a literal
- * from all minterms of the remaining uncovered onset.
+ * from the minterms of the remaining uncovered onset that are covered by the
+ * current term, as in the Python version. Minterms of a compressed onset count
+ * by their weights.
+ * </br>
+ * For many terms over the same onset, use a {@link LiteralFrequencyCounter}.
  * 
  * @author lvl2pillow
  *
@@ -28,6 +32,14 @@ implements HeuristicStrategy<Literal, Integer> {
 		super(literalFrequency(term, currentOnset));
 	}
 	
+	/**
+	 * 
+	 * @param counter counter moved to the current term.
+	 */
+	public LiteralFrequency(LiteralFrequencyCounter counter) {
+		super(counter.getHeuristic());
+	}
+	
 	/**
 	 * 
 	 * @param term current term under construction.
@@ -38,16 +50,16 @@ implements HeuristicStrategy<Literal, Integer> {
 			TermList currentOnset) {
 		// initialize
 		Map<Literal, Integer> literalFrequency = new HashMap<Literal, Integer>();
-		TermList uncoveredOnset = currentOnset.termsUncoveredBy(term);
-		// TODO log if currentOnset is empty or remaining uncovered onset is empty
-		for (Term minterm : uncoveredOnset) {
+		TermList coveredOnset = currentOnset.termsCoveredBy(term);
+		// TODO log if currentOnset is empty
+		for (Term minterm : coveredOnset) {
 			for (Literal literal : minterm) {
 				// new literal
 				if (!literalFrequency.containsKey(literal))
 					literalFrequency.put(literal, 0);
 				// increment literal frequency
 				literalFrequency.replace(literal, 
-						literalFrequency.get(literal)+1);
+						literalFrequency.get(literal)+minterm.getWeight());
 			}
 		}
 		return literalFrequency;
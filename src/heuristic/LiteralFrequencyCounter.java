@@ -0,0 +1,359 @@
+package heuristic;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import core.Literal;
+import core.LiteralIndex;
+import core.LiteralSet;
+import core.Term;
+import core.TermList;
+
+/**
+ * Incrementally maintained {@link LiteralFrequency}. The counter is built once
+ * for a data set, and is moved from term to term by applying deltas for the
+ * minterms that become covered or uncovered, instead of re-counting every
+ * minterm for every term.
+ * </br>
+ * Literals are kept in buckets by frequency, so the highest frequency is found
+ * in O(1). Only frequencies of some literal have a bucket, so there are at most
+ * as many buckets as literal codes, however large the weights of the minterms.
+ * </br>
+ * <b>Note:</b> As with {@link TermList#termsCoveredBy(Term)}, if the term
+ * covers no minterm the frequencies are those of the whole data set.
+ * </br>
+ * A counter is not thread-safe.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class LiteralFrequencyCounter 
+implements HeuristicStrategy<Literal, Integer>, IntHeuristicStrategy {
+	private final TermList dataSet;
+	private final LiteralIndex index;		// bitmap index of the data set
+	private final int[][] rowCodes;			// (row : literal codes of the minterm)
+	private final int[] rowWeights;			// (row : weight of the minterm)
+	private final int[] totalFrequency;		// (literal code : frequency in data set)
+	private final int[] frequency;			// (literal code : frequency in covered rows)
+	private final long[] excludedRows;		// rows not covered by the current term
+	private final long[] newExcludedRows;	// scratch bitset
+	private final boolean[] isInTerm;		// (variable index : variable is in term)
+	private int nCountedRows;
+	// buckets of literal codes by frequency, as doubly linked lists
+	private final int[] bucketFrequency;	// (bucket : frequency)
+	private final int[] bucketHead;			// (bucket : first literal code)
+	private final int[] freeBuckets;		// stack of unused buckets
+	private int nFreeBuckets;
+	private final int[] table;				// open addressing of buckets by frequency
+	private final int[] bucket;				// (literal code : bucket)
+	private final int[] next;				// (literal code : next literal code)
+	private final int[] previous;			// (literal code : previous literal code)
+	private int maxFrequency;
+
+	/**
+	 * Initially every minterm is covered, i.e. the current term is empty.
+	 *
+	 * @param dataSet the current onset.
+	 */
+	public LiteralFrequencyCounter(TermList dataSet) {
+		this.dataSet = dataSet;
+		this.index = new LiteralIndex(dataSet);
+		int nRows = dataSet.size();
+		int nCodes = index.codes();
+		this.rowCodes = new int[nRows][];
+		this.rowWeights = new int[nRows];
+		this.totalFrequency = new int[nCodes];
+		long totalWeight = 0;
+		for (int row = 0; row < nRows; ++row) {
+			Term minterm = dataSet.get(row);
+			int weight = minterm.getWeight();
+			int[] codes = new int[minterm.size()];
+			for (int i = 0; i < codes.length; ++i) {
+				codes[i] = minterm.get(i).getCode();
+				totalFrequency[codes[i]] += weight;
+			}
+			rowCodes[row] = codes;
+			rowWeights[row] = weight;
+			totalWeight += weight;
+		}
+		this.frequency = totalFrequency.clone();
+		this.excludedRows = new long[index.words()];
+		this.newExcludedRows = new long[index.words()];
+		this.isInTerm = new boolean[(nCodes+1) >>> 1];
+		this.nCountedRows = nRows;
+		// frequencies are ints
+		Math.toIntExact(totalWeight);
+		// initialize buckets, at most one per literal code
+		this.bucketFrequency = new int[nCodes];
+		this.bucketHead = new int[nCodes];
+		this.freeBuckets = new int[nCodes];
+		for (int b = 0; b < nCodes; ++b)
+			freeBuckets[b] = nCodes-1-b;
+		this.nFreeBuckets = nCodes;
+		// load factor at most 1/2
+		this.table = new int[Integer.highestOneBit(Math.max(nCodes, 1)) << 2];
+		Arrays.fill(table, -1);
+		this.bucket = new int[nCodes];
+		this.next = new int[nCodes];
+		this.previous = new int[nCodes];
+		this.maxFrequency = 0;
+		for (int code = 0; code < nCodes; ++code) {
+			if (index.literal(code) == null) continue;
+			link(code, frequency[code]);
+			maxFrequency = Math.max(maxFrequency, frequency[code]);
+		}
+	}
+
+	/**
+	 * Moves the counter to a term. Only the minterms whose covering differs
+	 * between the previous term and the specified term are counted.
+	 *
+	 * @param term current term under construction.
+	 */
+	public void setTerm(Term term) {
+		Arrays.fill(isInTerm, false);
+		for (Literal literal : term)
+			if (literal.getIndex() < isInTerm.length)
+				isInTerm[literal.getIndex()] = true;
+		// an empty term covers everything
+		if (term.isEmpty())
+			Arrays.fill(newExcludedRows, 0L);
+		else
+			excludedRows(term);
+		for (int w = 0; w < excludedRows.length; ++w) {
+			long changed = excludedRows[w] ^ newExcludedRows[w];
+			while (changed != 0) {
+				int row = (w << 6) + Long.numberOfTrailingZeros(changed);
+				if ((newExcludedRows[w] & Long.lowestOneBit(changed)) != 0)
+					exclude(row);
+				else
+					include(row);
+				changed &= changed-1;
+			}
+			excludedRows[w] = newExcludedRows[w];
+		}
+	}
+
+	/**
+	 * Finds the rows not covered by a term.
+	 *
+	 * @param term
+	 */
+	private void excludedRows(Term term) {
+		index.coveredRows(term, newExcludedRows);
+		int nRows = index.rows();
+		for (int w = 0; w < newExcludedRows.length; ++w) {
+			int nBits = Math.min(64, nRows-(w << 6));
+			long mask = (nBits == 64) ? -1L : (1L << nBits)-1;
+			newExcludedRows[w] = ~newExcludedRows[w] & mask;
+		}
+	}
+
+	/**
+	 * Removes a minterm, by its weight, from the frequencies.
+	 *
+	 * @param row
+	 */
+	private void exclude(int row) {
+		int weight = rowWeights[row];
+		for (int code : rowCodes[row]) {
+			int f = frequency[code];
+			frequency[code] -= weight;
+			unlink(code);
+			link(code, f-weight);
+		}
+		// the highest bucket may have been emptied
+		if (maxFrequency > 0 && find(maxFrequency) == -1) {
+			maxFrequency = 0;
+			for (int b : table)
+				if (b != -1) maxFrequency = Math.max(maxFrequency, bucketFrequency[b]);
+		}
+		--nCountedRows;
+	}
+
+	/**
+	 * Adds a minterm, by its weight, to the frequencies.
+	 *
+	 * @param row
+	 */
+	private void include(int row) {
+		int weight = rowWeights[row];
+		for (int code : rowCodes[row]) {
+			int f = frequency[code];
+			frequency[code] += weight;
+			unlink(code);
+			link(code, f+weight);
+			if (f+weight > maxFrequency)
+				maxFrequency = f+weight;
+		}
+		++nCountedRows;
+	}
+
+	private void link(int code, int f) {
+		int b = find(f);
+		if (b == -1) b = addBucket(f);
+		int head = bucketHead[b];
+		next[code] = head;
+		previous[code] = -1;
+		if (head != -1) previous[head] = code;
+		bucketHead[b] = code;
+		bucket[code] = b;
+	}
+
+	private void unlink(int code) {
+		int b = bucket[code];
+		if (previous[code] != -1)
+			next[previous[code]] = next[code];
+		else
+			bucketHead[b] = next[code];
+		if (next[code] != -1)
+			previous[next[code]] = previous[code];
+		if (bucketHead[b] == -1)
+			removeBucket(b);
+	}
+
+	private int slot(int f) {
+		return (f * 0x9E3779B9) >>> (32-Integer.numberOfTrailingZeros(table.length));
+	}
+
+	/**
+	 *
+	 * @param f frequency.
+	 * @return bucket of the frequency, or -1 if no literal has the frequency.
+	 */
+	private int find(int f) {
+		int mask = table.length-1;
+		for (int i = slot(f); table[i] != -1; i = (i+1) & mask)
+			if (bucketFrequency[table[i]] == f) return table[i];
+		return -1;
+	}
+
+	private int addBucket(int f) {
+		int b = freeBuckets[--nFreeBuckets];
+		bucketFrequency[b] = f;
+		bucketHead[b] = -1;
+		int mask = table.length-1;
+		int i = slot(f);
+		while (table[i] != -1)
+			i = (i+1) & mask;
+		table[i] = b;
+		return b;
+	}
+
+	/**
+	 * Removes an empty bucket, shifting back the buckets probed past it.
+	 *
+	 * @param b
+	 */
+	private void removeBucket(int b) {
+		int mask = table.length-1;
+		int i = slot(bucketFrequency[b]);
+		while (table[i] != b)
+			i = (i+1) & mask;
+		for (int j = (i+1) & mask; table[j] != -1; j = (j+1) & mask) {
+			int home = slot(bucketFrequency[table[j]]);
+			// move if its home is not within (i, j]
+			if (((j-home) & mask) >= ((j-i) & mask)) {
+				table[i] = table[j];
+				i = j;
+			}
+		}
+		table[i] = -1;
+		freeBuckets[nFreeBuckets++] = b;
+	}
+
+	/**
+	 *
+	 * @param code literal code.
+	 * @return literal frequency of the literal.
+	 */
+	public int getFrequency(int code) {
+		if (code >= frequency.length) return 0;
+		return (nCountedRows == 0) ? totalFrequency[code] : frequency[code];
+	}
+
+	/**
+	 *
+	 * @return highest literal frequency.
+	 */
+	public int getMaxFrequency() {
+		if (nCountedRows > 0) return maxFrequency;
+		int max = 0;
+		for (int f : totalFrequency)
+			max = Math.max(max, f);
+		return max;
+	}
+
+	/**
+	 * Variables already in the current term are not candidates, as in the
+	 * Python version.
+	 *
+	 * @return set of literals with the highest (non-zero) literal frequency,
+	 * 	of variables not in the current term.
+	 */
+	public LiteralSet getMaxFrequencyLiterals() {
+		LiteralSet literals = new LiteralSet();
+		// usually found in the highest bucket
+		if (nCountedRows > 0 && maxFrequency > 0) {
+			for (int code = bucketHead[find(maxFrequency)]; code != -1; code = next[code])
+				if (!isInTerm[code >>> 1])
+					literals.add(index.literal(code));
+			if (!literals.isEmpty()) return literals;
+		}
+		int max = 0;
+		for (int code = 0; code < frequency.length; ++code)
+			if (!isInTerm[code >>> 1])
+				max = Math.max(max, getFrequency(code));
+		if (max == 0) return literals;
+		for (int code = 0; code < frequency.length; ++code)
+			if (getFrequency(code) == max && !isInTerm[code >>> 1])
+				literals.add(index.literal(code));
+		return literals;
+	}
+
+	/**
+	 *
+	 * @param code literal code.
+	 * @return true if the variable of the literal is in the current term.
+	 */
+	public boolean isInTerm(int code) {
+		return (code >>> 1) < isInTerm.length && isInTerm[code >>> 1];
+	}
+
+	/**
+	 *
+	 * @param code literal code.
+	 * @return the literal from the data set, or {@code null} if no minterm
+	 * 	contains the literal.
+	 */
+	public Literal getLiteral(int code) { return index.literal(code); }
+	public int codes() { return frequency.length; }
+	public TermList getDataSet() { return dataSet; }
+
+	/**
+	 * The vector is live: it changes as the counter is moved to other terms.
+	 * 
+	 * @return literal frequency of every literal, by literal code.
+	 */
+	@Override
+	public int[] getHeuristicVector() {
+		return (nCountedRows == 0) ? totalFrequency : frequency;
+	}
+
+	/**
+	 * @return mapping of literals to their literal frequencies,
+	 * 	same as {@link LiteralFrequency}.
+	 */
+	@Override
+	public Map<Literal, Integer> getHeuristic() {
+		Map<Literal, Integer> literalFrequency = new HashMap<Literal, Integer>();
+		for (int code = 0; code < frequency.length; ++code) {
+			int f = getFrequency(code);
+			if (f > 0)
+				literalFrequency.put(index.literal(code), f);
+		}
+		return literalFrequency;
+	}
+
+}
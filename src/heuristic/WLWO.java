@@ -32,14 +32,12 @@ import core.TermList;
  *
  */
 public class WLWO implements HeuristicStrategy<Term, Integer> {
-	private static Map<Term, Integer> termWLWO;
+	private final Map<Term, Integer> termWLWO;
 	
-	@SuppressWarnings("static-access")
 	public WLWO(TermList primeImplicants) {
 		this.termWLWO = weightedLiteralWeightedOutput(primeImplicants);
 	}
 	
-	@SuppressWarnings("static-access")
 	@Override
 	public Map<Term, Integer> getHeuristic() {
 		return this.termWLWO;
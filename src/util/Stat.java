@@ -44,4 +44,62 @@ public class Stat {
 	public static double normalize(double n, double min, double max) {
 		return (n-min)/(max-min);
 	}
+	
+	/**
+	 * Feature normalization (between 0 and 1) of a vector, without allocation.
+	 * If all values are equal, every normalized value is 0.
+	 * 
+	 * @param values vector to normalize.
+	 * @param normalized vector of normalized values, at least as long as 
+	 * 	values. May be the same array as values.
+	 * @return normalized.
+	 */
+	public static double[] normalize(double[] values, double[] normalized) {
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		// find min and max values
+		for (double d : values) {
+			min = (d < min) ? d : min;
+			max = (d > max) ? d : max;
+		}
+		// normalize values
+		for (int i = 0; i < values.length; ++i)
+			normalized[i] = (min == max) ? 0.0 : normalize(values[i], min, max);
+		return normalized;
+	}
+	
+	/**
+	 * Feature normalization (between 0 and 1) of a vector, without allocation.
+	 * If all values are equal, every normalized value is 0.
+	 * 
+	 * @param values vector to normalize.
+	 * @param normalized vector of normalized values, at least as long as 
+	 * 	values.
+	 * @return normalized.
+	 */
+	public static double[] normalize(int[] values, double[] normalized) {
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		// find min and max values
+		for (int n : values) {
+			min = (n < min) ? n : min;
+			max = (n > max) ? n : max;
+		}
+		// normalize values
+		for (int i = 0; i < values.length; ++i)
+			normalized[i] = (min == max) ? 0.0 : normalize(values[i], min, max);
+		return normalized;
+	}
+	
+	/**
+	 * Weighted combination of two values, e.g. of two heuristics of a literal.
+	 * 
+	 * @param weight weight of a, between 0 and 1. b is weighted 1-weight.
+	 * @param a
+	 * @param b
+	 * @return combined value.
+	 */
+	public static double combine(double weight, double a, double b) {
+		return weight*a+(1-weight)*b;
+	}
 }
@@ -0,0 +1,82 @@
+package boom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import core.Budget;
+import core.Contradictions;
+import core.Solution;
+import core.TermList;
+import core.TermSet;
+import data.Data;
+import data.Generator;
+
+/**
+ * A run of {@link BOOM} is reproduced by its seed, no matter the parallelism.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class BOOMTest {
+	private static final int N_ITERATIONS = 8;
+
+	private static BOOM boom(long seed) {
+		return boom(seed, 12, 500);
+	}
+
+	private static BOOM boom(long seed, int nVariables, int nRows) {
+		Generator generator = new Generator(nVariables, nRows);
+		generator.setSeed(seed);
+		generator.setNoise(0.05);
+		Data data = generator.generate();
+		TermList onset = data.getOnset().toTermList();
+		TermList offset = data.getOffset().toTermList();
+		Contradictions.find(onset, offset).resolve(onset, offset, 
+				Contradictions.Policy.MAJORITY);
+		return new BOOM(onset, offset, data.getSchema(), N_ITERATIONS);
+	}
+
+	@Test
+	public void sameSeedFindsSameCover() {
+		for (long seed = 0; seed < 3; ++seed) {
+			BOOM boom = boom(seed);
+			boom.setSeed(42L);
+			TermSet cover = boom.run();
+			assertEquals(cover, boom.run());
+			BOOM other = boom(seed);
+			other.setSeed(42L);
+			assertEquals(cover, other.run());
+		}
+	}
+
+	@Test
+	public void parallelIterationsFindSameCover() {
+		for (long seed = 0; seed < 3; ++seed) {
+			BOOM sequential = boom(seed);
+			sequential.setSeed(42L);
+			BOOM parallel = boom(seed);
+			parallel.setSeed(42L);
+			parallel.setParallelism(4);
+			assertEquals(sequential.run(), parallel.run());
+		}
+	}
+
+	@Test
+	public void exactCoverIsNoLargerThanGreedy() {
+		for (long seed = 0; seed < 3; ++seed) {
+			BOOM greedy = boom(seed, 8, 60);
+			greedy.setSeed(42L);
+			BOOM exact = boom(seed, 8, 60);
+			exact.setSeed(42L);
+			exact.setExact(true);
+			Solution solution = exact.run(new Budget(10, TimeUnit.SECONDS));
+			assertTrue(solution.isComplete());
+			assertTrue(solution.getCover().size() <= greedy.run().size());
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package care;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import core.TermSet;
+import data.Data;
+import data.Generator;
+
+/**
+ * A run of {@link CARE} is reproduced by its seed, no matter the parallelism.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class CARETest {
+
+	private static Data data(long seed) {
+		Generator generator = new Generator(10, 300);
+		generator.setSeed(seed);
+		return generator.generate();
+	}
+
+	@Test
+	public void sameSeedFindsSameCover() {
+		for (long seed = 0; seed < 3; ++seed) {
+			CARE care = new CARE(data(seed), 0.5);
+			care.setSeed(42L);
+			TermSet cover = care.run();
+			assertEquals(cover, care.run());
+			CARE parallel = new CARE(data(seed), 0.5);
+			parallel.setSeed(42L);
+			parallel.setParallelism(4);
+			assertEquals(cover, parallel.run());
+		}
+	}
+
+}
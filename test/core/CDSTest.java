@@ -0,0 +1,60 @@
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import data.Data;
+import data.Generator;
+import heuristic.HeuristicContext;
+
+/**
+ * The parallel search of {@link CDS} finds the same implicants as the 
+ * sequential search.
+ * 
+ * @author lvl2pillow
+ *
+ */
+public class CDSTest {
+	private static final int PARALLELISM = 4;
+	
+	private static HeuristicContext context(long seed) {
+		Generator generator = new Generator(10, 300);
+		generator.setSeed(seed);
+		Data data = generator.generate();
+		return new HeuristicContext(data.getOnset().toTermList(), 
+				data.getOffset().toTermList(), data.getSchema());
+	}
+	
+	@Test
+	public void parallelSearchFindsSameImplicants() {
+		for (long seed = 0; seed < 3; ++seed) {
+			HeuristicContext context = context(seed);
+			Map<Literal, Double> socialHeuristic = 
+					new care.Social(context).getSocialHeuristic();
+			CDS sequential = new care.CDS(context, socialHeuristic, 0.5);
+			CDS parallel = new care.CDS(context, socialHeuristic, 0.5);
+			parallel.setParallelism(PARALLELISM);
+			TermSet implicants = sequential.run();
+			assertFalse(implicants.isEmpty());
+			assertEquals(implicants, parallel.run());
+		}
+	}
+	
+	@Test
+	public void parallelIterationsFindSameImplicants() {
+		for (long seed = 0; seed < 3; ++seed) {
+			HeuristicContext context = context(seed);
+			CDS sequential = new boom.CDS(context, 8, 42L);
+			CDS parallel = new boom.CDS(context, 8, 42L);
+			parallel.setParallelism(PARALLELISM);
+			TermSet implicants = sequential.run();
+			assertFalse(implicants.isEmpty());
+			assertEquals(implicants, parallel.run());
+		}
+	}
+	
+}
@@ -0,0 +1,119 @@
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * {@link Contradictions} finds the configurations of both the onset and the
+ * offset, and every {@link Contradictions.Policy} resolves them.
+ * </br>
+ * The onset is {ab, ab, ab, ab', a'b'} and the offset is {ab, ab', ab', a'b',
+ * a'b}: ab is mostly in the onset, ab' mostly in the offset, a'b' is a tie,
+ * and a'b is no contradiction.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class ContradictionsTest {
+	private static final Schema SCHEMA = Schema.of(2);
+
+	private static Term term(boolean a, boolean b) {
+		Term term = new Term();
+		term.add(SCHEMA.getLiteral(0, a));
+		term.add(SCHEMA.getLiteral(1, b));
+		return term;
+	}
+
+	private static TermList termList(Term... terms) {
+		return new TermList(Arrays.asList(terms));
+	}
+
+	private static TermList onset() {
+		return termList(term(true, true), term(true, true), term(true, true),
+				term(true, false), term(false, false));
+	}
+
+	private static TermList offset() {
+		return termList(term(true, true), term(true, false), term(true, false),
+				term(false, false), term(false, true));
+	}
+
+	@Test
+	public void findsContradictoryConfigurations() {
+		Contradictions contradictions = Contradictions.find(onset(), offset());
+		assertEquals(3, contradictions.size());
+		// in the order of the offset
+		assertEquals(Arrays.asList(term(true, true), term(true, false), term(false, false)),
+				contradictions.getConfigurations());
+		assertEquals(3, contradictions.getOnsetCount(term(true, true)));
+		assertEquals(1, contradictions.getOffsetCount(term(true, true)));
+		assertEquals(1, contradictions.getOnsetCount(term(true, false)));
+		assertEquals(2, contradictions.getOffsetCount(term(true, false)));
+		assertEquals(0, contradictions.getOnsetCount(term(false, true)));
+		assertTrue(Contradictions.find(onset(), termList(term(false, true))).isEmpty());
+	}
+
+	@Test
+	public void dropRemovesFromBoth() {
+		TermList onset = onset();
+		TermList offset = offset();
+		Contradictions.find(onset, offset).resolve(onset, offset, Contradictions.Policy.DROP);
+		assertEquals(termList(), onset);
+		assertEquals(termList(term(false, true)), offset);
+	}
+
+	@Test
+	public void majorityKeepsHigherProportion() {
+		TermList onset = onset();
+		TermList offset = offset();
+		Contradictions.find(onset, offset).resolve(onset, offset,
+				Contradictions.Policy.MAJORITY);
+		assertEquals(termList(term(true, true), term(true, true), term(true, true)), onset);
+		// the tie is removed from both
+		assertEquals(termList(term(true, false), term(true, false), term(false, true)), offset);
+		assertTrue(Contradictions.find(onset, offset).isEmpty());
+	}
+
+	@Test
+	public void majorityComparesProportionsNotCounts() {
+		// ab: 2 of 2 minterms of the onset, 3 of 10 of the offset
+		TermList onset = termList(term(true, true), term(true, true));
+		TermList offset = termList(term(true, true), term(true, true), term(true, true));
+		for (int i = 0; i < 7; ++i)
+			offset.add(term(false, true));
+		Contradictions.find(onset, offset).resolve(onset, offset,
+				Contradictions.Policy.MAJORITY);
+		assertEquals(2, onset.size());
+		assertEquals(7, offset.size());
+	}
+
+	@Test
+	public void majorityCountsWeights() {
+		// the onset compressed by weight, resolved as the uncompressed onset
+		Term ab = term(true, true);
+		ab.setWeight(3);
+		TermList onset = termList(ab, term(true, false), term(false, false));
+		TermList offset = offset();
+		Contradictions.find(onset, offset).resolve(onset, offset,
+				Contradictions.Policy.MAJORITY);
+		assertEquals(termList(term(true, true)), onset);
+		assertEquals(termList(term(true, false), term(true, false), term(false, true)), offset);
+	}
+
+	@Test
+	public void offsetMovesOnsetOccurrences() {
+		TermList onset = onset();
+		TermList offset = offset();
+		Contradictions.find(onset, offset).resolve(onset, offset, Contradictions.Policy.OFFSET);
+		assertEquals(termList(), onset);
+		TermList expected = offset();
+		expected.addAll(termList(term(true, true), term(true, true), term(true, true),
+				term(true, false), term(false, false)));
+		assertEquals(expected, offset);
+	}
+
+}
@@ -0,0 +1,164 @@
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * {@link ExactUCP} finds minimum covers, as a brute-force search does, and
+ * tells when its budget stopped it early.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class ExactUCPTest {
+
+	/**
+	 * Builds the onset and prime implicants of a cover matrix. Minterm i is
+	 * one-hot in variable i, and variable nRows is 0 in every minterm, so the
+	 * term of the compliments of every variable outside a set of rows covers
+	 * exactly those rows.
+	 */
+	private static final class Problem {
+		final TermList onset = new TermList();
+		final List<Term> columns = new ArrayList<Term>();
+
+		Problem(boolean[][] coverMatrix) {
+			int nRows = coverMatrix.length;
+			Schema schema = Schema.of(nRows+1);
+			for (int i = 0; i < nRows; ++i) {
+				Term minterm = new Term();
+				for (int v = 0; v <= nRows; ++v)
+					minterm.add(schema.getLiteral(v, v == i));
+				onset.add(minterm);
+			}
+			for (int j = 0; j < coverMatrix[0].length; ++j) {
+				Term column = new Term();
+				for (int v = 0; v <= nRows; ++v) {
+					if (v == nRows || !coverMatrix[v][j])
+						column.add(schema.getLiteral(v, false));
+				}
+				columns.add(column);
+			}
+		}
+
+		TermSet primeImplicants() { return new TermSet(columns); }
+
+		/**
+		 *
+		 * @return size of a minimum cover, by trying every set of columns.
+		 */
+		int minimumCover() {
+			int min = Integer.MAX_VALUE;
+			for (int set = 1; set < (1 << columns.size()); ++set) {
+				TermSet cover = new TermSet();
+				for (int j = 0; j < columns.size(); ++j) {
+					if ((set & (1 << j)) != 0) cover.add(columns.get(j));
+				}
+				if (covers(cover)) min = Math.min(min, cover.size());
+			}
+			return min;
+		}
+
+		boolean covers(TermSet cover) {
+			for (Term minterm : onset) {
+				boolean isCovered = false;
+				for (Term term : cover)
+					isCovered |= term.covers(minterm);
+				if (!isCovered) return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 *
+	 * @return random cover matrix, where every row is covered.
+	 */
+	private static boolean[][] randomMatrix(Random random, int nRows, int nColumns) {
+		boolean[][] coverMatrix = new boolean[nRows][nColumns];
+		for (int i = 0; i < nRows; ++i) {
+			for (int j = 0; j < nColumns; ++j)
+				coverMatrix[i][j] = random.nextInt(4) == 0;
+			coverMatrix[i][random.nextInt(nColumns)] = true;
+		}
+		return coverMatrix;
+	}
+
+	/**
+	 *
+	 * @return cover matrix where row i is covered by columns i and i+1, with
+	 * 	no essential or dominated row or column.
+	 */
+	private static boolean[][] cyclicMatrix(int n) {
+		boolean[][] coverMatrix = new boolean[n][n];
+		for (int i = 0; i < n; ++i) {
+			coverMatrix[i][i] = true;
+			coverMatrix[i][(i+1) % n] = true;
+		}
+		return coverMatrix;
+	}
+
+	@Test
+	public void findsMinimumCover() {
+		Random random = new Random(0);
+		for (int k = 0; k < 50; ++k) {
+			Problem problem = new Problem(randomMatrix(random, 10, 12));
+			ExactUCP exactUCP = new ExactUCP(problem.onset, problem.primeImplicants());
+			exactUCP.setParallelism(2);
+			TermSet cover = exactUCP.run();
+			assertTrue(problem.covers(cover));
+			assertTrue(exactUCP.isOptimal());
+			assertEquals(problem.minimumCover(), cover.size());
+		}
+	}
+
+	@Test
+	public void findsMinimumCyclicCover() {
+		Problem problem = new Problem(cyclicMatrix(9));
+		ExactUCP exactUCP = new ExactUCP(problem.onset, problem.primeImplicants());
+		TermSet cover = exactUCP.run();
+		assertTrue(exactUCP.isOptimal());
+		assertEquals(5, problem.minimumCover());
+		assertEquals(5, cover.size());
+	}
+
+	@Test
+	public void nodeBudgetStopsSearch() {
+		Problem problem = new Problem(cyclicMatrix(9));
+		ExactUCP exactUCP = new ExactUCP(problem.onset, problem.primeImplicants());
+		exactUCP.setNodeBudget(1);
+		TermSet cover = exactUCP.run();
+		assertFalse(exactUCP.isOptimal());
+		assertTrue(problem.covers(cover));
+	}
+
+	@Test
+	public void exhaustedBudgetStopsSearch() {
+		Problem problem = new Problem(cyclicMatrix(9));
+		ExactUCP exactUCP = new ExactUCP(problem.onset, problem.primeImplicants());
+		exactUCP.setBudget(new Budget(0, TimeUnit.MILLISECONDS));
+		TermSet cover = exactUCP.run();
+		assertFalse(exactUCP.isOptimal());
+		assertTrue(problem.covers(cover));
+	}
+
+	@Test
+	public void exactUCPIsMinimumCover() {
+		Problem problem = new Problem(cyclicMatrix(9));
+		UCP ucp = new boom.UCP(problem.onset, problem.primeImplicants());
+		ucp.setExact(true);
+		TermSet cover = ucp.run();
+		assertTrue(ucp.isComplete());
+		assertEquals(5, cover.size());
+		assertTrue(problem.covers(cover));
+	}
+
+}
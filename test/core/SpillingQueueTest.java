@@ -0,0 +1,151 @@
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * A {@link SpillingQueue} keeps FIFO order while batches are spilled to its
+ * file and read back, and deletes the file when closed.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class SpillingQueueTest {
+	private static final int N_VARIABLES = 12;
+	private static final int BOUND = 4;
+
+	private static Term randomTerm(Schema schema, Random random) {
+		Term term = new Term();
+		for (int i = 0; i < N_VARIABLES; ++i) {
+			if (random.nextInt(3) == 0)
+				term.add(schema.getLiteral(i, random.nextBoolean()));
+		}
+		term.setWeight(1+random.nextInt(300));
+		return term;
+	}
+
+	/**
+	 *
+	 * @return spill files of all queues in the temporary directory.
+	 */
+	private static Set<String> spillFiles() {
+		Set<String> files = new HashSet<String>();
+		File[] tmp = new File(System.getProperty("java.io.tmpdir")).listFiles();
+		if (tmp == null) return files;
+		for (File file : tmp) {
+			if (file.getName().startsWith("frontier") && file.getName().endsWith(".bin"))
+				files.add(file.getName());
+		}
+		return files;
+	}
+
+	@Test
+	public void termsKeepOrderAcrossSpills() {
+		Schema schema = Schema.of(N_VARIABLES);
+		Random random = new Random(0);
+		ArrayDeque<Term> expected = new ArrayDeque<Term>();
+		try (SpillingQueue<Term> queue = new SpillingQueue<Term>(
+				SpillingQueue.termCodec(schema), BOUND)) {
+			for (int step = 0; step < 2000; ++step) {
+				if (random.nextInt(3) != 0) {
+					Term term = randomTerm(schema, random);
+					queue.add(term);
+					expected.add(term);
+				} else {
+					Term term = queue.poll();
+					Term expectedTerm = expected.poll();
+					if (expectedTerm == null) {
+						assertNull(term);
+						continue;
+					}
+					assertEquals(expectedTerm, term);
+					assertEquals(expectedTerm.getWeight(), term.getWeight());
+					// decoded to the canonical literals of the schema
+					for (int i = 0; i < term.size(); ++i)
+						assertSame(expectedTerm.get(i), term.get(i));
+				}
+				assertEquals(expected.size(), queue.size());
+			}
+			assertTrue(queue.getBytesSpilled() > 0);
+			assertEquals(new ArrayList<Term>(expected), new ArrayList<Term>(queue));
+		}
+	}
+
+	@Test
+	public void subsetsKeepOrderAcrossSpills() {
+		Schema schema = Schema.of(N_VARIABLES);
+		Random random = new Random(1);
+		TermList dataSet = new TermList();
+		for (int row = 0; row < 50; ++row)
+			dataSet.add(randomTerm(schema, random));
+		List<TermList> expected = new ArrayList<TermList>();
+		try (SpillingQueue<TermList> queue = new SpillingQueue<TermList>(
+				SpillingQueue.subsetCodec(dataSet), BOUND)) {
+			for (int i = 0; i < 20; ++i) {
+				TermList subset = new TermList();
+				for (Term minterm : dataSet) {
+					if (random.nextBoolean()) subset.add(minterm);
+				}
+				queue.add(subset);
+				expected.add(subset);
+			}
+			assertTrue(queue.getBytesSpilled() > 0);
+			for (TermList subset : expected) {
+				TermList decoded = queue.poll();
+				assertEquals(subset.size(), decoded.size());
+				// decoded to the same minterm instances
+				for (int i = 0; i < subset.size(); ++i)
+					assertSame(subset.get(i), decoded.get(i));
+			}
+			assertTrue(queue.isEmpty());
+		}
+	}
+
+	@Test
+	public void closeDeletesFile() {
+		Schema schema = Schema.of(N_VARIABLES);
+		Random random = new Random(2);
+		Set<String> before = spillFiles();
+		SpillingQueue<Term> queue = new SpillingQueue<Term>(
+				SpillingQueue.termCodec(schema), BOUND);
+		for (int i = 0; i < 10; ++i)
+			queue.add(randomTerm(schema, random));
+		Set<String> spilled = spillFiles();
+		spilled.removeAll(before);
+		assertEquals(1, spilled.size());
+		queue.close();
+		spilled.retainAll(spillFiles());
+		assertTrue(spilled.isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unorderedSubsetIsRejected() {
+		Schema schema = Schema.of(N_VARIABLES);
+		Random random = new Random(3);
+		TermList dataSet = new TermList();
+		for (int row = 0; row < 4; ++row)
+			dataSet.add(randomTerm(schema, random));
+		TermList unordered = new TermList();
+		unordered.add(dataSet.get(2));
+		unordered.add(dataSet.get(0));
+		try (SpillingQueue<TermList> queue = new SpillingQueue<TermList>(
+				SpillingQueue.subsetCodec(dataSet), 2)) {
+			// the second subset fills the tail, which is spilled
+			queue.add(new TermList(dataSet));
+			queue.add(unordered);
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Every run of {@link UCP} selects a cover of the onset, not only the first.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class UCPTest {
+	private static final Schema SCHEMA = Schema.of(3);
+
+	/**
+	 *
+	 * @param values form of every variable, {@code null} if the variable is
+	 * 	not part of the term.
+	 * @return term of the canonical literals.
+	 */
+	private static Term term(Boolean... values) {
+		Term term = new Term();
+		for (int i = 0; i < values.length; ++i) {
+			if (values[i] != null)
+				term.add(SCHEMA.getLiteral(i, values[i]));
+		}
+		return term;
+	}
+
+	/**
+	 *
+	 * @return onset of ab+ac+bc, where every prime implicant is essential.
+	 */
+	private static TermList onset() {
+		TermList onset = new TermList();
+		onset.add(term(true, true, false));
+		onset.add(term(true, false, true));
+		onset.add(term(false, true, true));
+		onset.add(term(true, true, true));
+		return onset;
+	}
+
+	private static TermSet primeImplicants() {
+		TermSet primeImplicants = new TermSet();
+		primeImplicants.add(term(true, true, null));
+		primeImplicants.add(term(true, null, true));
+		primeImplicants.add(term(null, true, true));
+		return primeImplicants;
+	}
+
+	private static void assertCovers(TermList onset, TermSet cover) {
+		for (Term minterm : onset) {
+			boolean isCovered = false;
+			for (Term term : cover)
+				isCovered |= term.covers(minterm);
+			assertTrue("minterm not covered: "+minterm, isCovered);
+		}
+	}
+
+	/**
+	 * Selects the first prime implicant that covers a minterm not covered yet.
+	 */
+	private static class FirstCovering extends UCP {
+		FirstCovering(TermList onset, TermSet primeImplicants) {
+			super(onset, primeImplicants);
+		}
+
+		@Override
+		protected void essentialPrimeImplicantsHelper(TermSet essentialPrimeImplicants,
+				CoverMatrix coverMatrix) {
+			for (int j = 0; j < coverMatrix.columns(); ++j) {
+				if (coverMatrix.coverCount(j) > 0) {
+					select(essentialPrimeImplicants, coverMatrix, j);
+					return;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void secondRunCoversOnset() {
+		TermList onset = onset();
+		UCP ucp = new FirstCovering(onset, primeImplicants());
+		TermSet cover = ucp.run();
+		assertCovers(onset, cover);
+		assertEquals(cover, ucp.run());
+	}
+
+	@Test
+	public void secondGreedyRunCoversOnset() {
+		TermList onset = onset();
+		UCP ucp = new boom.UCP(onset, primeImplicants());
+		TermSet cover = ucp.run();
+		assertCovers(onset, cover);
+		assertEquals(cover, ucp.run());
+	}
+
+}
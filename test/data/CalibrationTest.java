@@ -0,0 +1,118 @@
+package data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import core.Schema;
+
+/**
+ * {@link Calibration} thresholds are the mean or median of every variable,
+ * and values above the threshold are 1.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class CalibrationTest {
+
+	private static double sortedMedian(double[] values, int n) {
+		double[] sorted = Arrays.copyOf(values, n);
+		Arrays.sort(sorted);
+		return (n%2 == 1) ? sorted[n/2] : (sorted[n/2-1]+sorted[n/2])/2.0;
+	}
+
+	@Test
+	public void meanOfOddAndEvenCounts() {
+		double[] values = {0.1, 0.9, 0.5, 0.3, 1.0};
+		assertEquals(0.5, Calibration.mean(values, 3), 1e-12);
+		assertEquals(0.45, Calibration.mean(values, 4), 1e-12);
+		assertEquals(0.56, Calibration.mean(values, 5), 1e-12);
+	}
+
+	@Test
+	public void medianOfOddAndEvenCounts() {
+		double[] values = {0.1, 0.9, 0.5, 0.3, 1.0, 0.3};
+		assertEquals(0.5, Calibration.median(values, 3), 0);
+		assertEquals(0.4, Calibration.median(values, 4), 1e-12);
+		assertEquals(0.5, Calibration.median(values, 5), 0);
+		assertEquals(0.4, Calibration.median(values, 6), 1e-12);
+		assertEquals(0.1, Calibration.median(values, 1), 0);
+		assertEquals(0.5, Calibration.median(values, 2), 1e-12);
+		// the values are not reordered
+		assertArrayEquals(new double[] {0.1, 0.9, 0.5, 0.3, 1.0, 0.3}, values, 0);
+	}
+
+	@Test
+	public void medianEqualsSortedMedian() {
+		Random random = new Random(0);
+		for (int n = 1; n < 200; ++n) {
+			double[] values = new double[n];
+			for (int i = 0; i < n; ++i)
+				values[i] = random.nextInt(10)/10.0;	// many equal values
+			assertEquals(sortedMedian(values, n), Calibration.median(values, n), 0);
+		}
+	}
+
+	@Test
+	public void valuesAboveThresholdAreOne() {
+		FuzzyData fuzzyData = new FuzzyData(Schema.of(2));
+		fuzzyData.add(new double[] {0.2, 0.0}, true);
+		fuzzyData.add(new double[] {0.4, 1.0}, false);
+		fuzzyData.add(new double[] {0.6, 0.5}, true);
+		fuzzyData.add(new double[] {0.8, 0.5}, false);
+		Calibration median = new Calibration(Calibration.Statistic.MEDIAN);
+		assertArrayEquals(new double[] {0.5, 0.5}, median.thresholds(fuzzyData), 1e-12);
+		Data data = median.calibrate(fuzzyData);
+		PackedDataSet onset = data.getOnset();
+		PackedDataSet offset = data.getOffset();
+		assertEquals(2, onset.size());
+		assertEquals(2, offset.size());
+		// a value at the threshold is 0
+		assertEquals(false, onset.get(0, 0));
+		assertEquals(false, onset.get(0, 1));
+		assertEquals(true, onset.get(1, 0));
+		assertEquals(false, onset.get(1, 1));
+		assertEquals(false, offset.get(0, 0));
+		assertEquals(true, offset.get(0, 1));
+		assertEquals(true, offset.get(1, 0));
+		assertEquals(false, offset.get(1, 1));
+		Calibration mean = new Calibration(Calibration.Statistic.MEAN);
+		assertArrayEquals(new double[] {0.5, 0.5}, mean.thresholds(fuzzyData), 1e-12);
+	}
+
+	@Test
+	public void parallelCalibrationKeepsRowOrder() {
+		Random random = new Random(1);
+		FuzzyData fuzzyData = new FuzzyData(Schema.of(5));
+		// several blocks of rows
+		for (int row = 0; row < 40000; ++row) {
+			double[] values = new double[5];
+			for (int i = 0; i < values.length; ++i)
+				values[i] = random.nextDouble();
+			fuzzyData.add(values, random.nextInt(3) == 0);
+		}
+		Calibration sequential = new Calibration(Calibration.Statistic.MEDIAN);
+		sequential.setParallelism(1);
+		Data expected = sequential.calibrate(fuzzyData);
+		Calibration parallel = new Calibration(Calibration.Statistic.MEDIAN);
+		parallel.setParallelism(4);
+		Data data = parallel.calibrate(fuzzyData);
+		assertEquals(expected.getOnset().toTermList(), data.getOnset().toTermList());
+		assertEquals(expected.getOffset().toTermList(), data.getOffset().toTermList());
+		double[] thresholds = parallel.thresholds(fuzzyData);
+		int onsetRow = 0;
+		int offsetRow = 0;
+		for (int row = 0; row < fuzzyData.size(); ++row) {
+			boolean isPositive = fuzzyData.isPositive(row);
+			PackedDataSet dataSet = isPositive ? data.getOnset() : data.getOffset();
+			int dataRow = isPositive ? onsetRow++ : offsetRow++;
+			for (int i = 0; i < thresholds.length; ++i)
+				assertEquals(fuzzyData.get(row, i) > thresholds[i], dataSet.get(dataRow, i));
+		}
+	}
+
+}
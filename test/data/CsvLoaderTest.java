@@ -0,0 +1,110 @@
+package data;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link CsvLoader} reads every row once and in file order, across chunk
+ * boundaries, line endings and empty lines.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class CsvLoaderTest {
+	private static final int N_VARIABLES = 12;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File write(String text) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static void assertRows(List<boolean[]> expected, PackedDataSet dataSet) {
+		assertEquals(expected.size(), dataSet.size());
+		for (int row = 0; row < expected.size(); ++row) {
+			for (int i = 0; i < expected.get(row).length; ++i)
+				assertEquals("row "+row+", variable "+i, expected.get(row)[i], dataSet.get(row, i));
+		}
+	}
+
+	@Test
+	public void rowsKeepOrderAcrossChunks() throws IOException {
+		Random random = new Random(0);
+		List<boolean[]> onset = new ArrayList<boolean[]>();
+		List<boolean[]> offset = new ArrayList<boolean[]>();
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < N_VARIABLES; ++i)
+			text.append('x').append(i).append(',');
+		text.append("y\n");
+		// over 3 MB, so the file is parsed in several chunks
+		for (int row = 0; row < 130000; ++row) {
+			boolean[] values = new boolean[N_VARIABLES];
+			for (int i = 0; i < N_VARIABLES; ++i) {
+				values[i] = random.nextBoolean();
+				text.append(values[i] ? '1' : '0').append(',');
+			}
+			boolean isPositive = random.nextBoolean();
+			(isPositive ? onset : offset).add(values);
+			text.append(isPositive ? '1' : '0');
+			text.append(row%2 == 0 ? "\n" : "\r\n");
+			if (row%997 == 0) text.append("\r\n");
+		}
+		File file = write(text.toString());
+		for (int parallelism : new int[] {1, 4}) {
+			CsvLoader loader = new CsvLoader(file.toPath());
+			loader.setParallelism(parallelism);
+			Data data = loader.load();
+			assertEquals(N_VARIABLES, data.getSchema().size());
+			assertRows(onset, data.getOnset());
+			assertRows(offset, data.getOffset());
+		}
+	}
+
+	@Test
+	public void crlfAndEmptyLinesAreSkipped() throws IOException {
+		File file = write("\r\na, b ,y\r\n1,0,1\r\n\r\n\n 0 ,1,0\r\n1,1,1");
+		Data data = new CsvLoader(file.toPath()).load();
+		assertEquals("b", data.getSchema().getName(1));
+		List<boolean[]> onset = new ArrayList<boolean[]>();
+		onset.add(new boolean[] {true, false});
+		onset.add(new boolean[] {true, true});
+		List<boolean[]> offset = new ArrayList<boolean[]>();
+		offset.add(new boolean[] {false, true});
+		assertRows(onset, data.getOnset());
+		assertRows(offset, data.getOffset());
+	}
+
+	@Test
+	public void fileWithoutHeaderStartsWithData() throws IOException {
+		File file = write("0.25,1,1\r\n0.75,0,0\r\n");
+		CsvLoader loader = new CsvLoader(file.toPath());
+		loader.setHeader(false);
+		FuzzyData data = loader.loadFuzzy();
+		assertEquals(2, data.size());
+		assertEquals(0.25, data.get(0, 0), 0);
+		assertEquals(0.75, data.get(1, 0), 0);
+		assertEquals(true, data.isPositive(0));
+		assertEquals(false, data.isPositive(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unequalRowsAreRejected() throws IOException {
+		File file = write("a,b,y\r\n1,0,1\r\n1,1\r\n");
+		new CsvLoader(file.toPath()).load();
+	}
+
+}
@@ -0,0 +1,160 @@
+package data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import core.CoverMatrix;
+import core.Schema;
+import core.Term;
+import core.TermList;
+import heuristic.Connectivity;
+import heuristic.LiteralFrequency;
+import heuristic.LiteralFrequencyCounter;
+
+/**
+ * A {@link TruthTable} collapses identical minterms into weighted minterms,
+ * and heuristics of the compressed data set stay identical to those of the
+ * uncompressed data set.
+ *
+ * @author lvl2pillow
+ *
+ */
+public class TruthTableTest {
+	private static final int N_VARIABLES = 6;
+
+	/**
+	 *
+	 * @return data set of few variables, so most minterms are duplicates.
+	 */
+	private static TermList dataSet(long seed) {
+		Generator generator = new Generator(N_VARIABLES, 2000);
+		generator.setSeed(seed);
+		return generator.generate().getOnset().toTermList();
+	}
+
+	private static List<Term> randomTerms(Schema schema, Random random, int nTerms) {
+		List<Term> terms = new ArrayList<Term>();
+		for (int k = 0; k < nTerms; ++k) {
+			Term term = new Term();
+			for (int i = 0; i < N_VARIABLES; ++i) {
+				if (random.nextInt(3) == 0)
+					term.add(schema.getLiteral(i, random.nextBoolean()));
+			}
+			terms.add(term);
+		}
+		return terms;
+	}
+
+	private static long totalWeight(TermList dataSet) {
+		long totalWeight = 0;
+		for (Term minterm : dataSet)
+			totalWeight += minterm.getWeight();
+		return totalWeight;
+	}
+
+	@Test
+	public void mintermsKeepFirstOccurrenceOrder() {
+		Schema schema = Schema.of(2);
+		Term a = new Term();
+		a.add(schema.getLiteral(0, true));
+		a.add(schema.getLiteral(1, false));
+		Term b = new Term();
+		b.add(schema.getLiteral(0, false));
+		b.add(schema.getLiteral(1, false));
+		TermList dataSet = new TermList();
+		dataSet.add(a);
+		dataSet.add(b);
+		dataSet.add(new Term(a));
+		dataSet.add(new Term(a));
+		TermList compressed = TruthTable.compress(dataSet);
+		assertEquals(2, compressed.size());
+		assertEquals(a, compressed.get(0));
+		assertEquals(3, compressed.get(0).getWeight());
+		assertEquals(b, compressed.get(1));
+		assertEquals(1, compressed.get(1).getWeight());
+		// the data set is not changed
+		assertEquals(1, a.getWeight());
+	}
+
+	@Test
+	public void packedAndTermCompressionAgree() {
+		Generator generator = new Generator(N_VARIABLES, 2000);
+		generator.setSeed(1);
+		PackedDataSet onset = generator.generate().getOnset();
+		PackedDataSet compressed = TruthTable.compress(onset);
+		TermList expected = TruthTable.compress(onset.toTermList());
+		TermList termList = compressed.toTermList();
+		assertEquals(expected, termList);
+		for (int row = 0; row < expected.size(); ++row)
+			assertEquals(expected.get(row).getWeight(), termList.get(row).getWeight());
+		assertEquals(onset.totalWeight(), compressed.totalWeight());
+		// compressed again, nothing changes
+		assertEquals(compressed.size(), TruthTable.compress(compressed).size());
+	}
+
+	@Test
+	public void heuristicsStayIdentical() {
+		for (long seed = 0; seed < 3; ++seed) {
+			TermList dataSet = dataSet(seed);
+			TermList compressed = TruthTable.compress(dataSet);
+			assertTrue(compressed.size() < dataSet.size());
+			assertEquals(dataSet.size(), totalWeight(compressed));
+			assertArrayEquals(Connectivity.adjacencyMatrix(dataSet),
+					Connectivity.adjacencyMatrix(compressed));
+			Schema schema = Schema.of(dataSet.get(0));
+			Random random = new Random(seed);
+			LiteralFrequencyCounter counter = new LiteralFrequencyCounter(dataSet);
+			LiteralFrequencyCounter compressedCounter = new LiteralFrequencyCounter(compressed);
+			List<Term> terms = randomTerms(schema, random, 50);
+			for (Term term : terms) {
+				assertEquals(new LiteralFrequency(term, dataSet),
+						new LiteralFrequency(term, compressed));
+				counter.setTerm(term);
+				compressedCounter.setTerm(term);
+				assertEquals(counter.getHeuristic(), compressedCounter.getHeuristic());
+				assertEquals(counter.getMaxFrequency(), compressedCounter.getMaxFrequency());
+				assertEquals(counter.getMaxFrequencyLiterals(),
+						compressedCounter.getMaxFrequencyLiterals());
+			}
+			CoverMatrix coverMatrix = new CoverMatrix(dataSet, terms);
+			CoverMatrix compressedCoverMatrix = new CoverMatrix(compressed, terms);
+			for (int j = 0; j < terms.size(); ++j)
+				assertEquals(coverMatrix.coverCount(j), compressedCoverMatrix.coverCount(j));
+			assertArrayEquals(coverMatrix.leastCovered(), compressedCoverMatrix.leastCovered());
+		}
+	}
+
+	@Test
+	public void counterHandlesLargeWeights() {
+		TermList compressed = TruthTable.compress(dataSet(0));
+		// frequencies far above the number of literals
+		for (Term minterm : compressed)
+			minterm.setWeight(minterm.getWeight() << 16);
+		Schema schema = Schema.of(compressed.get(0));
+		LiteralFrequencyCounter counter = new LiteralFrequencyCounter(compressed);
+		for (Term term : randomTerms(schema, new Random(0), 50)) {
+			counter.setTerm(term);
+			assertEquals(new LiteralFrequency(term, compressed), counter.getHeuristic());
+			int max = 0;
+			for (int f : counter.getHeuristic().values())
+				max = Math.max(max, f);
+			assertEquals(max, counter.getMaxFrequency());
+		}
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void counterRejectsOverflowingWeights() {
+		TermList compressed = TruthTable.compress(dataSet(0));
+		for (Term minterm : compressed)
+			minterm.setWeight(Integer.MAX_VALUE/2);
+		new LiteralFrequencyCounter(compressed);
+	}
+
+}